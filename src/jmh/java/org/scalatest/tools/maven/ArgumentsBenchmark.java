@@ -0,0 +1,95 @@
+package org.scalatest.tools.maven;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the Runner arguments are built from large generated <code>suites</code> and <code>tests</code>
+ * parameters.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+public class ArgumentsBenchmark {
+
+	@Param( { "10000" } )
+	int entries;
+
+	String suites;
+
+	String tests;
+
+	String escapedTests;
+
+	String reporters;
+
+	File directory;
+
+	@Setup
+	public void setUp() {
+		StringBuilder suites = new StringBuilder();
+		StringBuilder tests = new StringBuilder();
+		StringBuilder escapedTests = new StringBuilder();
+		StringBuilder reporters = new StringBuilder();
+		for( int i = 0; i < entries; i++ ) {
+			String separator = i == 0 ? "" : ",";
+			suites.append( separator )
+			      .append( "com.example.module" )
+			      .append( i % 100 )
+			      .append( ".GeneratedSuite" )
+			      .append( i )
+			      .append( " test number " )
+			      .append( i );
+			tests.append( separator )
+			     .append( i % 2 == 0 ? "@" : "" )
+			     .append( "should handle case " )
+			     .append( i );
+			escapedTests.append( separator )
+			            .append( "case " )
+			            .append( i )
+			            .append( "\\, with a comma" );
+			reporters.append( separator )
+			         .append( "YZT com.example.Reporter" )
+			         .append( i );
+		}
+		this.suites = suites.toString();
+		this.tests = tests.toString();
+		this.escapedTests = escapedTests.toString();
+		this.reporters = reporters.toString();
+		directory = new File( System.getProperty( "java.io.tmpdir" ), "scalatest-arguments-benchmark" );
+	}
+
+	@Benchmark
+	public List<String> splitOnComma() {
+		return MojoUtils.splitOnComma( suites );
+	}
+
+	@Benchmark
+	public List<String> splitOnCommaWithEscapes() {
+		return MojoUtils.splitOnComma( escapedTests );
+	}
+
+	@Benchmark
+	public List<String> compoundArg() {
+		return MojoUtils.compoundArg( "-n", tests );
+	}
+
+	@Benchmark
+	public List<String> reporterArg() {
+		return MojoUtils.reporterArg( "-C", reporters, MojoUtils.passThrough );
+	}
+
+	@Benchmark
+	public String[] configuration() {
+		TestMojo mojo = new TestMojo();
+		mojo.reportsDirectory = directory;
+		mojo.outputDirectory = directory;
+		mojo.testOutputDirectory = directory;
+		mojo.suites = suites;
+		mojo.tests = tests;
+		return mojo.configuration();
+	}
+}
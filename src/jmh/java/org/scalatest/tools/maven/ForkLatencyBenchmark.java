@@ -0,0 +1,48 @@
+package org.scalatest.tools.maven;
+
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.CommandLineUtils;
+import org.codehaus.plexus.util.cli.Commandline;
+import org.codehaus.plexus.util.cli.StreamConsumer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of forking a JVM the way the mojos do, against a main class that does nothing, i.e. the
+ * latency every forked run pays before ScalaTest starts.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 10 )
+public class ForkLatencyBenchmark {
+
+	public static final class TrivialMain {
+
+		public static void main(String[] args) {
+		}
+	}
+
+	TestMojo mojo;
+
+	@Setup
+	public void setUp() {
+		mojo = new TestMojo();
+		mojo.project = new MavenProject();
+		mojo.project.setFile( new File( System.getProperty( "user.dir" ), "pom.xml" ) );
+	}
+
+	@Benchmark
+	public int fork() throws CommandLineException {
+		Commandline cli = mojo.forkCommandline( System.getProperty( "java.class.path" ) );
+		cli.createArg()
+		   .setValue( TrivialMain.class.getName() );
+		StreamConsumer ignore = line -> {
+		};
+		return CommandLineUtils.executeCommandLine( cli, ignore, ignore );
+	}
+}
@@ -0,0 +1,58 @@
+package org.scalatest.tools.maven;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the wall-clock time of a forked JVM running ScalaTest's Runner on an empty run path, i.e. the JVM and
+ * Runner startup that every fork of a short-running suite pays, with the default JVM options and with the options of
+ * <code>forkStartupProfile</code>.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 2 )
+@Measurement( iterations = 10 )
+public class ForkStartupBenchmark {
+
+	@Param( { "none", "-XX:TieredStopAtLevel=1 -XX:+UseSerialGC -Xshare:auto -XX:ReservedCodeCacheSize=32m" } )
+	String jvmOptions;
+
+	File runpath;
+
+	@Setup
+	public void setUp() throws IOException {
+		runpath = File.createTempFile( "fork-startup", "" );
+		runpath.delete();
+		runpath.mkdirs();
+	}
+
+	@TearDown
+	public void tearDown() {
+		runpath.delete();
+	}
+
+	@Benchmark
+	public int fork() throws IOException, InterruptedException {
+		List<String> command = new ArrayList<String>();
+		command.add( new File( System.getProperty( "java.home" ), "bin/java" ).getPath() );
+		if( !jvmOptions.equals( "none" ) ) {
+			command.addAll( Arrays.asList( jvmOptions.split( " " ) ) );
+		}
+		command.addAll( Arrays.asList( "-classpath",
+		                               System.getProperty( "java.class.path" ),
+		                               "org.scalatest.tools.Runner",
+		                               "-R",
+		                               runpath.getAbsolutePath(),
+		                               "-oW" ) );
+		return new ProcessBuilder( command ).inheritIO()
+		                                    .start()
+		                                    .waitFor();
+	}
+}
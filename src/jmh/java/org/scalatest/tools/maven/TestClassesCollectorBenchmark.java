@@ -0,0 +1,47 @@
+package org.scalatest.tools.maven;
+
+import org.codehaus.plexus.util.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the discovery of test classes in a synthetic test output directory with 100 classes per package, each
+ * with two nested classes.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+public class TestClassesCollectorBenchmark {
+
+	@Param( { "1000", "10000" } )
+	int classes;
+
+	File testOutputDirectory;
+
+	@Setup
+	public void setUp() throws IOException {
+		testOutputDirectory = File.createTempFile( "test-classes", "" );
+		testOutputDirectory.delete();
+		for( int i = 0; i < classes; i++ ) {
+			File dir = new File( testOutputDirectory, "com/example/module" + i / 100 );
+			dir.mkdirs();
+			for( String suffix : new String[] { "", "$", "$anonfun$1" } ) {
+				new File( dir, "GeneratedSuite" + i + suffix + ".class" ).createNewFile();
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		FileUtils.deleteDirectory( testOutputDirectory );
+	}
+
+	@Benchmark
+	public List<String> testClasses() {
+		return new TestClassesCollector( testOutputDirectory.getAbsolutePath() + "/" ).testClasses();
+	}
+}
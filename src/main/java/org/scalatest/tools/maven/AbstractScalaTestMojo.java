@@ -1,19 +1,33 @@
 package org.scalatest.tools.maven;
 
-import com.google.common.base.Splitter;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.util.cli.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 import static java.util.Collections.singletonList;
 import static org.scalatest.tools.maven.MojoUtils.*;
@@ -40,6 +54,14 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 	 */
 	MavenProject project;
 
+	/**
+	 * Injected by Maven so that the fork budget can be shared by all modules of a build. Should not be user facing.
+	 *
+	 * @parameter default-value="${session}"
+	 * @readonly
+	 */
+	MavenSession session;
+
 	/**
 	 * Injected by Maven so that it can be included in the run path. Should not be user facing.
 	 * 
@@ -154,13 +176,212 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 	String testsFiles;
 
 	/**
-	 * Option to specify the forking mode. Can be "never" or "once". "always", which would fork for each test-class, may be
-	 * supported later.
+	 * Option to specify the forking mode. Can be "never", "once", "suite-sequential" or "mixed". "suite-sequential" forks
+	 * a JVM for each test-class. "mixed" forks a JVM for each test-class annotated with one of the
+	 * <code>isolationAnnotations</code> and runs all other test-classes together in a single JVM at the same time.
 	 *
 	 * @parameter property="forkMode" default-value="once"
 	 */
 	String forkMode;
 
+	/**
+	 * Comma separated list of fully qualified annotation names, e.g. tag annotations like <code>com.example.Isolated</code>.
+	 * With <code>forkMode</code> "mixed", test-classes carrying one of these annotations are run in a JVM of their own.
+	 *
+	 * @parameter property="isolationAnnotations"
+	 */
+	String isolationAnnotations;
+
+	/**
+	 * Set to true to have the forked processes report test events back to the mojo over a local socket. The mojo then
+	 * logs progress while tests run and a summary of the tests run and failed afterwards.
+	 *
+	 * @parameter property="scalatest.useEventChannel" default-value="false"
+	 */
+	boolean useEventChannel;
+
+	/**
+	 * Number of times tests that failed are re-run in a fresh forked process. Tests that pass when re-run are reported
+	 * as flaky and don't fail the build. Only applies to the forking modes, and implies <code>useEventChannel</code>, over
+	 * which the failed tests are determined. When forking a JVM for each test-class, all suites run before failing tests
+	 * are re-run, instead of stopping at the first failing suite.
+	 *
+	 * @parameter property="rerunFailingTestsCount" default-value="0"
+	 */
+	int rerunFailingTestsCount;
+
+	// Receives the events of the forked processes of the current run, if enabled
+	EventChannelServer eventChannel;
+
+	// The suites whose own forked JVM failed in the current run
+	Set<String> failedForks;
+
+	/**
+	 * Set to true to cache the results of suites that passed when forking a JVM for each test-class, i.e. with
+	 * <code>forkMode</code> "suite-sequential" or for the isolated suites in "mixed". A suite is skipped and its cached
+	 * output and reports are restored as long as its class files, the class files it depends on, the Runner arguments
+	 * and the test classpath are unchanged.
+	 *
+	 * @parameter property="scalatest.useResultCache" default-value="false"
+	 */
+	boolean useResultCache;
+
+	/**
+	 * Directory of the suite result cache. It can be shared between projects.
+	 *
+	 * @parameter property="scalatest.resultCacheDirectory" default-value="${user.home}/.scalatest/result-cache"
+	 */
+	File resultCacheDirectory;
+
+	/**
+	 * Maximum size of the suite result cache in megabytes. The least recently used results are evicted first.
+	 *
+	 * @parameter property="scalatest.resultCacheMaxSize" default-value="512"
+	 */
+	long resultCacheMaxSize = 512;
+
+	/**
+	 * Maximum total length in characters of the Runner arguments passed on the command line of a forked process. Longer
+	 * arguments, e.g. from large <code>suites</code> or <code>tests</code> selections, are written to a file in the
+	 * build directory instead, which the forked process reads them from. Set to 0 to always pass them on the command
+	 * line.
+	 *
+	 * @parameter property="scalatest.argumentFileThreshold" default-value="16384"
+	 */
+	int argumentFileThreshold = 16384;
+
+	/**
+	 * Maximum number of forked test JVMs running at the same time across all modules of the build, e.g. when building
+	 * with <code>-T 8</code>. A fork waits until one of the running ones completes. The first execution of the build
+	 * determines the budget. Set to 0 to not limit the number of forks.
+	 *
+	 * @parameter property="scalatest.forkBudget" default-value="0"
+	 */
+	int forkBudget;
+
+	/**
+	 * Set to true to start the JVMs forked for short-running suites with <code>forkStartupProfileArgLine</code>, which
+	 * trades peak performance for faster startup. Only applies when forking a JVM for each test-class, i.e. with
+	 * <code>forkMode</code> "suite-sequential" or for the isolated suites in "mixed". A suite counts as short-running
+	 * unless its last recorded duration exceeds <code>forkStartupProfileMaxDuration</code>, so the profile also applies
+	 * to suites run for the first time.
+	 *
+	 * @parameter property="scalatest.forkStartupProfile" default-value="false"
+	 */
+	boolean forkStartupProfile;
+
+	/**
+	 * JVM options to pass to the JVMs forked for short-running suites when <code>forkStartupProfile</code> is true. They
+	 * are passed before <code>argLine</code>, so that it can override them. A garbage collector selected here is left
+	 * out if <code>argLine</code> selects one, as the JVM refuses to start with two.
+	 *
+	 * @parameter property="scalatest.forkStartupProfileArgLine" default-value="-XX:TieredStopAtLevel=1 -XX:+UseSerialGC -Xshare:auto -XX:ReservedCodeCacheSize=32m"
+	 */
+	String forkStartupProfileArgLine;
+
+	/**
+	 * Recorded duration in seconds above which a suite is run with the default JVM options even if
+	 * <code>forkStartupProfile</code> is true.
+	 *
+	 * @parameter property="scalatest.forkStartupProfileMaxDuration" default-value="10"
+	 */
+	int forkStartupProfileMaxDuration = 10;
+
+	/**
+	 * File to record the durations of the suites in, for use by later runs.
+	 *
+	 * @parameter property="scalatest.statisticsFile" default-value="${project.build.directory}/scalatest-statistics"
+	 */
+	File statisticsFile;
+
+	// The recorded suite durations, if used by the current run
+	SuiteStatistics statistics;
+
+	/**
+	 * Set to true to keep an index of the test classes in <code>suiteIndexFile</code> and discover the suites to fork
+	 * for from it. The index holds the name and tags of each top-level test class. It is only rewritten when class files
+	 * changed since the last run, and only those are read again.
+	 *
+	 * @parameter property="scalatest.useSuiteIndex" default-value="false"
+	 */
+	boolean useSuiteIndex;
+
+	/**
+	 * File of the suite index.
+	 *
+	 * @parameter property="scalatest.suiteIndexFile" default-value="${project.build.directory}/scalatest-suite-index"
+	 */
+	File suiteIndexFile;
+
+	// The suite index, if used by the current run
+	SuiteIndex suiteIndex;
+
+	/**
+	 * Order to run the suites in when forking: "alphabetical", "random:&lt;seed&gt;" (or "random" for a new seed on every
+	 * run, which is logged), "longest-first" by the durations recorded in <code>statisticsFile</code>, suites without a
+	 * recorded duration first, or "failed-first" by the outcomes recorded there. Applies to the JVMs forked per suite as
+	 * well as to the suites passed to a single JVM with -s, together with the tests selected in them. By default,
+	 * discovered suites run alphabetically and selected suites in the configured order. The durations and outcomes of
+	 * suites sharing a JVM, i.e. with <code>forkMode</code> "once" and in the shared JVM of "mixed", are only recorded
+	 * over the event channel, see <code>useEventChannel</code>.
+	 *
+	 * @parameter property="scalatest.runOrder"
+	 */
+	String runOrder;
+
+	// The parsed runOrder, null if not set
+	RunOrder suiteOrder;
+
+	/**
+	 * Runs only a part of the discovered suites, given as "k/n" for the k-th of n parts, e.g. to spread the suites of a
+	 * module over several machines. Suites are assigned to parts by name, so a part always runs the same suites. Only
+	 * applies when forking. With <code>forkMode</code> "once", the suites of the part are passed to the Runner
+	 * explicitly, so it can't be combined with selecting suites through other parameters such as <code>suites</code>.
+	 *
+	 * @parameter property="scalatest.shard"
+	 */
+	String shard;
+
+	/**
+	 * Set to true to start the JVM of the next suite while the current one runs when forking a JVM for each
+	 * test-class, i.e. with <code>forkMode</code> "suite-sequential" or for the isolated suites in "mixed". The next
+	 * JVM loads the Runner and waits, so that the suite starts as soon as the previous one completes. Up to two JVMs
+	 * are alive at a time; with a <code>forkBudget</code>, the next JVM is only started ahead of time once the current
+	 * one holds its permit, and only if that leaves a permit free for other forks.
+	 *
+	 * @parameter property="scalatest.standbyFork" default-value="false"
+	 */
+	boolean standbyFork;
+
+	/**
+	 * Set to true to run each forked JVM in a cgroup of its own on Linux with cgroup v2, limited by
+	 * <code>cgroupCpuWeight</code> and <code>cgroupMemoryMax</code>, and to log the peak memory and CPU time of each
+	 * fork. The cgroups are created next to the cgroup of the Maven process, which requires its parent to be delegated to
+	 * the user running Maven, as with user sessions and services managed by systemd. Otherwise, the forks run as usual.
+	 *
+	 * @parameter property="scalatest.useCgroups" default-value="false"
+	 */
+	boolean useCgroups;
+
+	/**
+	 * CPU weight of each forked JVM when <code>useCgroups</code> is true, from 1 to 10000. Forks competing for CPU get
+	 * time in proportion to their weight. Set to 0 to keep the default weight of 100.
+	 *
+	 * @parameter property="scalatest.cgroupCpuWeight" default-value="0"
+	 */
+	int cgroupCpuWeight;
+
+	/**
+	 * Memory limit of each forked JVM when <code>useCgroups</code> is true, in bytes with an optional K, M or G suffix,
+	 * e.g. "2G". A fork exceeding it is killed.
+	 *
+	 * @parameter property="scalatest.cgroupMemoryMax"
+	 */
+	String cgroupMemoryMax;
+
+	// The cgroup of the current run, if forks run in cgroups
+	Cgroups cgroups;
+
 	/**
 	 * Option to specify additional JVM options to pass to the forked process.
 	 *
@@ -243,16 +464,417 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 		getLog().debug( Arrays.toString( args ) );
 		if( forkMode.equals( "never" ) ) {
 			return runWithoutForking( args );
-		} else if( forkMode.equals( "suite-sequential" ) ) {
+		}
+		suiteOrder = suiteOrder();
+		statistics = ( forkStartupProfile || suiteOrder != null && suiteOrder.usesStatistics() ) && statisticsFile != null
+		             ? SuiteStatistics.load( statisticsFile, getLog() )
+		             : null;
+		suiteIndex = useSuiteIndex ? updateSuiteIndex() : null;
+		cgroups = useCgroups ? Cgroups.create( "scalatest-" + UUID.randomUUID(), getLog() ) : null;
+		failedForks = Collections.synchronizedSet( new LinkedHashSet<String>() );
+		try {
+			openEventChannel();
+			boolean passed;
+			try {
+				passed = runForking( args );
+			} finally {
+				closeEventChannel();
+				if( statistics != null ) {
+					statistics.save();
+				}
+			}
+			if( !passed && rerunFailingTestsCount > 0 ) {
+				passed = rerunFailingTests( args );
+			}
+			return passed;
+		} finally {
+			if( cgroups != null ) {
+				cgroups.close();
+			}
+		}
+	}
+
+	//
+	// Re-runs the tests that failed in a fresh fork, up to
+	// rerunFailingTestsCount times. Tests that pass on a re-run are
+	// reported as flaky. Returns true if all of them eventually passed.
+	//
+	private boolean rerunFailingTests(String[] args) throws MojoFailureException {
+		Set<String> failing = failingSelection();
+		if( failing == null ) {
+			getLog().warn( "Unable to determine which tests failed. Not re-running them." );
+			return false;
+		}
+		// A suite whose fork failed without reporting a failure, e.g. because the JVM crashed, is re-run as a whole
+		synchronized( failedForks ) {
+			for( String testSuite : failedForks ) {
+				if( !selectsSuite( failing, testSuite ) ) {
+					failing.add( testSuite );
+				}
+			}
+		}
+		if( failing.isEmpty() ) {
+			getLog().warn( "No failing tests were reported. Not re-running them." );
+			return false;
+		}
+		Set<String> initiallyFailing = new LinkedHashSet<String>( failing );
+
+		for( int attempt = 1; attempt <= rerunFailingTestsCount && !failing.isEmpty(); attempt++ ) {
+			getLog().info( String.format( "Re-running %d failing test(s), attempt %d of %d.", failing.size(), attempt, rerunFailingTestsCount ) );
+
+			List<String> rerunArgs = withoutSuiteSelection( args );
+			for( String selection : failing ) {
+				SuiteTestPair pair = new SuiteTestPair( selection );
+				rerunArgs.add( "-s" );
+				rerunArgs.add( pair.suite );
+				addTest( rerunArgs, pair.test );
+			}
+
+			openEventChannel();
+			boolean passed;
+			try {
+				passed = runForkingOnce( concat( rerunArgs ) );
+			} finally {
+				closeEventChannel();
+			}
+			if( passed ) {
+				failing.clear();
+			} else {
+				Set<String> stillFailing = failingSelection();
+				if( stillFailing == null || stillFailing.isEmpty() ) {
+					break;
+				}
+				failing = stillFailing;
+			}
+		}
+
+		Set<String> flaky = new LinkedHashSet<String>( initiallyFailing );
+		flaky.removeAll( failing );
+		if( !flaky.isEmpty() ) {
+			getLog().warn( "Flaky tests, failed at first but passed when re-run:" );
+			for( String selection : flaky ) {
+				getLog().warn( "  " + selection );
+			}
+		}
+		return failing.isEmpty();
+	}
+
+	//
+	// The failures reported over the event channel, each as a suite class
+	// name optionally followed by '@' and the exact test name, as accepted
+	// by SuiteTestPair. A failure outside of a test selects its whole suite.
+	// Returns null if there is no event channel or the failures can't be
+	// mapped to suites.
+	//
+	private Set<String> failingSelection() {
+		if( eventChannel == null ) {
+			return null;
+		}
+		Set<String> selection = new LinkedHashSet<String>();
+		for( EventChannelServer.TestFailure failure : eventChannel.failures() ) {
+			if( failure.suiteClassName == null ) {
+				return null;
+			}
+			selection.add( failure.testName == null ? failure.suiteClassName : failure.suiteClassName + " @" + failure.testName );
+		}
+		return selection;
+	}
+
+	private static boolean selectsSuite(Set<String> selection, String testSuite) {
+		for( String selected : selection ) {
+			if( selected.equals( testSuite ) || selected.startsWith( testSuite + " @" ) ) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// Runner arguments selecting suites or tests, or writing reports that a re-run must not overwrite
+	private static final Set<String> RERUN_EXCLUDED_ARGS = new HashSet<String>( Arrays.asList( "-s",
+	                                                                                            "-z",
+	                                                                                            "-t",
+	                                                                                            "-m",
+	                                                                                            "-w",
+	                                                                                            "-b",
+	                                                                                            "-A",
+	                                                                                            "-j",
+	                                                                                            "-q",
+	                                                                                            "-M",
+	                                                                                            "-h",
+	                                                                                            "-Y" ) );
+
+	// Returns the arguments without those in RERUN_EXCLUDED_ARGS and file reporters, each with its value
+	static List<String> withoutSuiteSelection(String[] args) {
+		List<String> list = new ArrayList<String>();
+		for( int i = 0; i < args.length; i++ ) {
+			String arg = args[i];
+			if( RERUN_EXCLUDED_ARGS.contains( arg ) || arg.startsWith( "-f" ) || arg.startsWith( "-u" ) ) {
+				i++;
+			} else {
+				list.add( arg );
+			}
+		}
+		return list;
+	}
+
+	private boolean runForking(String[] args) throws MojoFailureException {
+		if( forkMode.equals( "suite-sequential" ) ) {
 			return runForkingSuiteSequential( args );
+		} else if( forkMode.equals( "mixed" ) ) {
+			return runForkingMixed( args );
 		} else {
 			if( !forkMode.equals( "once" ) ) {
 				getLog().error( "Invalid forkMode: \"" + forkMode + "\"; Using once instead." );
 			}
+			if( shard != null ) {
+				return runForkingOnceShard( args );
+			}
 			return runForkingOnce( args );
 		}
 	}
 
+	// Runner arguments selecting the suites to run
+	private static final Set<String> SUITE_SELECTION_ARGS = new HashSet<String>( Arrays.asList( "-s", "-w", "-m", "-j", "-b", "-A" ) );
+
+	// Passes the suites of the shard to the Runner, which would otherwise discover and run all suites
+	private boolean runForkingOnceShard(String[] args) throws MojoFailureException {
+		if( !Collections.disjoint( Arrays.asList( args ), SUITE_SELECTION_ARGS ) ) {
+			throw new MojoFailureException( "shard can't be combined with selecting suites when forkMode is once." );
+		}
+		List<String> shardArgs = new ArrayList<String>( Arrays.asList( args ) );
+		for( String testSuite : shardSuites( args ) ) {
+			shardArgs.add( "-s" );
+			shardArgs.add( testSuite );
+		}
+		if( shardArgs.size() == args.length ) {
+			getLog().info( "No suites in shard " + shard + ". Skipping." );
+			return true;
+		}
+		return runForkingOnce( concat( shardArgs ) );
+	}
+
+	//
+	// The test suites among the classes of the shard, taken from the suite
+	// index if enabled, or else from the collector. Supertypes in jars are
+	// resolved by checking the classes in a fork.
+	//
+	private List<String> shardSuites(String[] args) throws MojoFailureException {
+		int[] shard = shard();
+		TestClassesCollector collector = new TestClassesCollector( testClassesPath() );
+		List<String> classes;
+		if( suiteIndex != null ) {
+			classes = suiteIndex.classes( shard[0], shard[1] );
+		} else {
+			classes = new ArrayList<String>();
+			for( String testClass : collector.testClasses() ) {
+				if( SuiteIndex.inShard( testClass, shard[0], shard[1] ) ) {
+					classes.add( testClass );
+				}
+			}
+		}
+		return testSuites( collector, buildClassPathEnvironment( args ), classes );
+	}
+
+	//
+	// The candidate suites of the modes forking a JVM per suite: the classes
+	// found by the collector, or the classes of the suite index if enabled.
+	// Either way limited to the shard and without the suites carrying one
+	// of the tagsToExclude, all of whose tests would be excluded.
+	//
+	private List<String> discoverSuites(TestClassesCollector collector) throws MojoFailureException {
+		int[] shard = shard();
+		List<String> excludedTags = excludedTags();
+		List<String> suites = new ArrayList<String>();
+		if( suiteIndex != null ) {
+			int[] excludedTagIds = suiteIndex.tagIds( excludedTags );
+			for( int i = 0; i < suiteIndex.size(); i++ ) {
+				String testSuite = suiteIndex.name( i );
+				if( SuiteIndex.inShard( testSuite, shard[0], shard[1] )
+				    && !excludedByTag( testSuite, suiteIndex.hasAnyTag( i, excludedTagIds ) ) ) {
+					suites.add( testSuite );
+				}
+			}
+		} else {
+			for( String testClass : collector.testClasses() ) {
+				if( SuiteIndex.inShard( testClass, shard[0], shard[1] )
+				    && !excludedByTag( testClass, collector.isAnnotatedWithAny( testClass, excludedTags ) ) ) {
+					suites.add( testClass );
+				}
+			}
+		}
+		return ordered( suites );
+	}
+
+	// Returns null if runOrder is not set
+	private RunOrder suiteOrder() throws MojoFailureException {
+		if( runOrder == null ) {
+			return null;
+		}
+		try {
+			RunOrder order = RunOrder.parse( runOrder );
+			getLog().info( "Running suites in order " + order );
+			if( order.usesStatistics() && !forkMode.equals( "suite-sequential" ) && !useEventChannel && rerunFailingTestsCount == 0 ) {
+				getLog().warn( String.format( "Suite statistics for runOrder %s are only recorded over the event channel with forkMode %s. "
+				                              + "Set useEventChannel to true, or suites sharing a JVM keep running in the same order.",
+				                              order,
+				                              forkMode ) );
+			}
+			return order;
+		} catch (IllegalArgumentException e) {
+			throw new MojoFailureException( e.getMessage() );
+		}
+	}
+
+	private List<String> ordered(List<String> suites) {
+		return suiteOrder == null ? suites : suiteOrder.sort( suites, statistics );
+	}
+
+	//
+	// Orders the suites selected with -s by runOrder. The -z, -t and -i
+	// arguments following a -s go along with it, as the Runner applies them
+	// to the preceding suite.
+	//
+	private String[] orderSuiteSelection(String[] args) {
+		if( suiteOrder == null ) {
+			return args;
+		}
+		List<String> others = new ArrayList<String>();
+		Map<String, List<String>> selections = new HashMap<String, List<String>>();
+		List<String> current = null;
+		for( int i = 0; i < args.length; i++ ) {
+			String arg = args[i];
+			if( arg.equals( "-s" ) && i + 1 < args.length ) {
+				current = selections.get( args[i + 1] );
+				if( current == null ) {
+					current = new ArrayList<String>();
+					selections.put( args[i + 1], current );
+				}
+				current.add( arg );
+				current.add( args[++i] );
+			} else if( current != null && SUITE_MEMBER_ARGS.contains( arg ) && i + 1 < args.length ) {
+				current.add( arg );
+				current.add( args[++i] );
+			} else {
+				others.add( arg );
+			}
+		}
+		if( selections.size() < 2 ) {
+			return args;
+		}
+		for( String testSuite : ordered( new ArrayList<String>( selections.keySet() ) ) ) {
+			others.addAll( selections.get( testSuite ) );
+		}
+		return concat( others );
+	}
+
+	// Runner arguments selecting tests of the preceding -s suite
+	private static final Set<String> SUITE_MEMBER_ARGS = new HashSet<String>( Arrays.asList( "-z", "-t", "-i" ) );
+
+	private boolean excludedByTag(String testSuite, boolean excluded) {
+		if( excluded ) {
+			getLog().info( String.format( "Suite %s is tagged with one of the tags to exclude. Skipping.", testSuite ) );
+		}
+		return excluded;
+	}
+
+	// The names of the tagsToExclude, which may be separated by commas or whitespace
+	private List<String> excludedTags() {
+		List<String> tags = new ArrayList<String>();
+		for( String param : splitOnComma( tagsToExclude ) ) {
+			for( String tag : WHITESPACE.split( param ) ) {
+				if( !tag.isEmpty() ) {
+					tags.add( tag );
+				}
+			}
+		}
+		return tags;
+	}
+
+	// Parses shard into the part and the number of parts, 1/1 if not set
+	private int[] shard() throws MojoFailureException {
+		if( shard == null ) {
+			return new int[] { 1, 1 };
+		}
+		String[] parts = shard.trim()
+		                      .split( "/" );
+		try {
+			int[] parsed = { Integer.parseInt( parts[0].trim() ), Integer.parseInt( parts[1].trim() ) };
+			if( parts.length == 2 && parsed[1] > 0 && parsed[0] >= 1 && parsed[0] <= parsed[1] ) {
+				return parsed;
+			}
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			// reported below
+		}
+		throw new MojoFailureException( "Invalid shard: \"" + shard + "\"; Expected k/n with 1 <= k <= n." );
+	}
+
+	// Returns null if the index can't be written, in which case suites are discovered without it
+	private SuiteIndex updateSuiteIndex() {
+		try {
+			return SuiteIndex.update( suiteIndexFile, testOutputDirectory );
+		} catch (IOException e) {
+			getLog().warn( "Unable to update suite index " + suiteIndexFile + ". Discovering suites without it: " + e.getMessage() );
+			return null;
+		}
+	}
+
+	private void recordResult(String testSuite, boolean passed) {
+		if( statistics != null ) {
+			statistics.recordResult( testSuite, passed );
+		}
+	}
+
+	private void recordDuration(String testSuite, long durationInMillis) {
+		if( statistics != null ) {
+			statistics.record( testSuite, durationInMillis );
+		}
+	}
+
+	private void openEventChannel() {
+		eventChannel = null;
+		if( useEventChannel || rerunFailingTestsCount > 0 ) {
+			try {
+				eventChannel = new EventChannelServer( getLog() );
+			} catch (IOException e) {
+				getLog().warn( "Unable to open event channel for forked processes: " + e.getMessage() );
+			}
+		}
+	}
+
+	private void closeEventChannel() {
+		if( eventChannel != null ) {
+			try {
+				eventChannel.close();
+			} catch (InterruptedException e) {
+				Thread.currentThread()
+				      .interrupt();
+			}
+			// Aborted suites have no duration, but failures just the same
+			Set<String> failedSuites = new HashSet<String>();
+			for( EventChannelServer.TestFailure failure : eventChannel.failures() ) {
+				if( failure.suiteClassName != null ) {
+					failedSuites.add( failure.suiteClassName );
+					recordResult( failure.suiteClassName, false );
+				}
+			}
+			for( Map.Entry<String, Long> duration : eventChannel.suiteDurations()
+			                                                    .entrySet() ) {
+				recordDuration( duration.getKey(), duration.getValue() );
+				if( !failedSuites.contains( duration.getKey() ) ) {
+					recordResult( duration.getKey(), true );
+				}
+			}
+			getLog().info( eventChannel.summary() );
+			List<EventChannelServer.TestFailure> failures = eventChannel.failures();
+			if( !failures.isEmpty() ) {
+				getLog().error( "Failed tests:" );
+				for( EventChannelServer.TestFailure failure : failures ) {
+					getLog().error( "  " + failure );
+				}
+			}
+		}
+	}
+
 	// Returns true if all tests pass
 	private boolean runWithoutForking(String[] args) {
 		try {
@@ -270,104 +892,467 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 	}
 
 	private boolean runForkingSuiteSequential(String[] args) throws MojoFailureException {
-		String classesPath = project.getBuild()
-		                            .getTestOutputDirectory()
-		                     + "/";
-		TestClassesCollector collector = new TestClassesCollector( classesPath );
-		Iterator<String> classes = collector.testClasses()
-		                                    .iterator();
-		String classPathEnv = buildClassPathEnvironment();
-		while( classes.hasNext() ) {
-
-			String testSuite = classes.next();
-
-			final Commandline cli = new Commandline();
-			cli.setWorkingDirectory( project.getBasedir() );
-			cli.setExecutable( "java" );
-
-			// Set up environment
-			if( environmentVariables != null ) {
-				for( final Map.Entry<String, String> entry : environmentVariables.entrySet() ) {
-					cli.addEnvironment( entry.getKey(), entry.getValue() );
+		TestClassesCollector collector = new TestClassesCollector( testClassesPath() );
+		return runForkingEachSuite( args, collector, discoverSuites( collector ) );
+	}
+
+	//
+	// Runs the discovered suites annotated with one of the isolationAnnotations
+	// in a JVM of their own each, while all other suites share a single JVM.
+	// Both groups run at the same time.
+	//
+	private boolean runForkingMixed(final String[] args) throws MojoFailureException {
+		final TestClassesCollector collector = new TestClassesCollector( testClassesPath() );
+		List<String> annotations = splitOnComma( isolationAnnotations );
+		final List<String> isolated = new ArrayList<String>();
+		List<String> shared = new ArrayList<String>();
+		for( String testSuite : discoverSuites( collector ) ) {
+			if( collector.isAnnotatedWithAny( testSuite, annotations ) ) {
+				isolated.add( testSuite );
+			} else {
+				shared.add( testSuite );
+			}
+		}
+		getLog().info( String.format( "Running %d isolated suite(s) in their own JVM and %d suite(s) in a shared JVM.",
+		                              isolated.size(),
+		                              shared.size() ) );
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Boolean> isolatedResult = executor.submit( new Callable<Boolean>() {
+
+				public Boolean call() throws MojoFailureException {
+					return runForkingEachSuite( args, collector, isolated );
 				}
+			} );
+
+			List<String> sharedArgs = new ArrayList<String>( Arrays.asList( args ) );
+			for( String testSuite : testSuites( collector, buildClassPathEnvironment( args ), shared ) ) {
+				sharedArgs.add( "-s" );
+				sharedArgs.add( testSuite );
 			}
-			cli.addEnvironment( "CLASSPATH", classPathEnv );
+			boolean sharedPassed = sharedArgs.size() == args.length || runForkingOnce( concat( sharedArgs ) );
 
-			// Set up system properties
-			if( systemProperties != null ) {
-				for( final Map.Entry<String, String> entry : systemProperties.entrySet() ) {
-					cli.createArg()
-					   .setValue( String.format( "-D%s=%s", entry.getKey(), entry.getValue() ) );
+			try {
+				return isolatedResult.get() && sharedPassed;
+			} catch (InterruptedException e) {
+				Thread.currentThread()
+				      .interrupt();
+				throw new MojoFailureException( "Interrupted while waiting for isolated suites to complete." );
+			} catch (ExecutionException e) {
+				if( e.getCause() instanceof MojoFailureException ) {
+					throw (MojoFailureException) e.getCause();
 				}
+				throw new MojoFailureException( "Exception while running isolated suites.", e.getCause() );
 			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	// Forks one JVM per suite, stopping at the first failing one unless
+	// failing tests are re-run, which requires all failures to be known.
+	// Returns true if all tests pass
+	private boolean runForkingEachSuite(String[] args, TestClassesCollector collector, List<String> testSuites) throws MojoFailureException {
+		String classPathEnv = buildClassPathEnvironment( args );
+		if( standbyFork ) {
+			classPathEnv += File.pathSeparator + pluginClasspathElement();
+		}
+		SuiteResultCache resultCache = resultCache( args );
+		File argumentFile = argumentFile( args );
+		try {
+			return runForkingEachSuite( args, collector, testSuites, classPathEnv, resultCache, argumentFile );
+		} finally {
+			deleteArgumentFile( argumentFile );
+			if( resultCache != null ) {
+				resultCache.evict();
+			}
+		}
+	}
+
+	private boolean runForkingEachSuite(String[] args,
+	                                    TestClassesCollector collector,
+	                                    List<String> testSuites,
+	                                    String classPathEnv,
+	                                    SuiteResultCache resultCache,
+	                                    File argumentFile) throws MojoFailureException {
+		StandbyFork standby = null;
+		boolean allPassed = true;
+		try {
+			for( int i = 0; i < testSuites.size(); i++ ) {
+				String testSuite = testSuites.get( i );
+				StandbyFork prepared = standby;
+				standby = null;
+
+				String cacheKey = null;
+				if( resultCache != null ) {
+					try {
+						cacheKey = resultCache.key( testSuite );
+					} catch (IOException e) {
+						getLog().warn( "Unable to compute result cache key of " + testSuite + ": " + e.getMessage() );
+					}
+					List<File> restoredReports = new ArrayList<File>();
+					List<String> cachedOutput = cacheKey == null ? null : resultCache.restore( cacheKey, reportsDirectory(), restoredReports );
+					if( cachedOutput != null ) {
+						getLog().info( String.format( "Suite %s is unchanged since it last passed. Using cached result.", testSuite ) );
+						for( String line : cachedOutput ) {
+							forkOutput( line );
+						}
+						resultRestored( restoredReports );
+						cancel( prepared );
+						continue;
+					}
+				}
+
+				if( !isTestSuite( collector, classPathEnv, testSuite ) ) {
+					cancel( prepared );
+					continue;
+				}
+
+				// The current fork takes its permit of the fork budget before the next one can
+				Semaphore budget = prepared == null ? acquireFork() : null;
+				if( standbyFork && i + 1 < testSuites.size() ) {
+					standby = startStandbyFork( suiteCommandline( args, classPathEnv, argumentFile, testSuites.get( i + 1 ), true ),
+					                            testSuites.get( i + 1 ),
+					                            resultCache != null );
+				}
+
+				List<String> output;
+				long start = System.nanoTime();
+				boolean passed;
+				if( prepared != null ) {
+					output = prepared.output;
+					passed = prepared.run();
+				} else {
+					output = resultCache == null ? null : new ArrayList<String>();
+					passed = forkSuite( args, classPathEnv, argumentFile, testSuite, output, budget );
+				}
+				// Without the event channel, the duration of the whole fork is all there is
+				if( eventChannel == null ) {
+					recordDuration( testSuite, TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start ) );
+				}
+				recordResult( testSuite, passed );
+				if( !passed ) {
+					failedForks.add( testSuite );
+					allPassed = false;
+					if( rerunFailingTestsCount > 0 ) {
+						continue;
+					}
+					break;
+				}
+				if( output != null && cacheKey != null ) {
+					resultCache.store( cacheKey, testSuite, output, reportsDirectory() );
+				}
+			}
+		} finally {
+			cancel( standby );
+		}
+
+		return allPassed;
+	}
+
+	//
+	// Forks a JVM running a single suite, which releases the given permit of
+	// the fork budget when it completes, unless that is null. Returns true
+	// if all its tests pass.
+	//
+	boolean forkSuite(String[] args, String classPathEnv, File argumentFile, String testSuite, List<String> output, Semaphore budget)
+	        throws MojoFailureException {
+		return executeFork( suiteCommandline( args, classPathEnv, argumentFile, testSuite, false ),
+		                    " for possible test suite: " + testSuite,
+		                    output,
+		                    budget );
+	}
+
+	// Creates the command line of a fork running a single suite, which waits for StandbyRunner.RUN if standby is true
+	private Commandline suiteCommandline(String[] args, String classPathEnv, File argumentFile, String testSuite, boolean standby) {
+		final Commandline cli = forkCommandline( classPathEnv, startupProfileArgLine( testSuite ) );
+		if( standby ) {
 			cli.createArg()
-			   .setValue( String.format( "-Dbasedir=%s",
-			                             project.getBasedir()
-			                                    .getAbsolutePath() ) );
+			   .setValue( StandbyRunner.class.getName() );
+		}
+		addRunnerArguments( cli, args, argumentFile );
 
-			// Set user specified JVM arguments
-			if( argLine != null ) {
-				cli.createArg()
-				   .setLine( argLine );
+		cli.createArg()
+		   .setValue( "-s" );
+		cli.createArg()
+		   .setValue( testSuite );
+		return cli;
+	}
+
+	//
+	// Starts a JVM for a suite ahead of time, or returns null if that is
+	// not possible. A standby fork needs a permit of the fork budget like
+	// any other, but doesn't wait for one, and never takes the last free
+	// one, which forks that are ready to run may be waiting for.
+	//
+	private StandbyFork startStandbyFork(Commandline cli, String testSuite, boolean captureOutput) {
+		Semaphore budget = forkBudget();
+		if( budget != null ) {
+			if( !budget.tryAcquire( 2 ) ) {
+				return null;
+			}
+			budget.release();
+		}
+		logForkCommand( cli, " ahead of time for possible test suite: " + testSuite );
+		try {
+			return new StandbyFork( cli, testSuite, captureOutput ? new ArrayList<String>() : null, budget );
+		} catch (CommandLineException e) {
+			getLog().debug( "Unable to start JVM ahead of time for " + testSuite + ": " + e.getMessage() );
+			if( budget != null ) {
+				budget.release();
+			}
+			return null;
+		}
+	}
+
+	private void cancel(StandbyFork standby) {
+		if( standby != null ) {
+			standby.cancel();
+		}
+	}
+
+	//
+	// A JVM forked for a suite while the previous suite still runs. It
+	// waits in StandbyRunner, with the Runner loaded, until it is told to
+	// run the suite or to exit.
+	//
+	private final class StandbyFork {
+
+		final List<String> output;
+
+		private final String testSuite;
+
+		private final Semaphore budget;
+
+		private final CommandLineCallable process;
+
+		private final Cgroups.Group cgroup;
+
+		private volatile boolean run;
+
+		StandbyFork(Commandline cli, String testSuite, List<String> output, Semaphore budget) throws CommandLineException {
+			this.testSuite = testSuite;
+			this.output = output;
+			this.budget = budget;
+			this.cgroup = enterCgroup( cli );
+			StreamConsumer streamConsumer = forkConsumer( output );
+			// The process' stdin is only fed once process.call() is invoked, by which time 'run' is decided
+			process = CommandLineUtils.executeCommandLineAsCallable( cli, new InputStream() {
+
+				private ByteArrayInputStream command;
+
+				@Override
+				public int read() {
+					if( command == null ) {
+						command = new ByteArrayInputStream( ( ( run ? StandbyRunner.RUN : StandbyRunner.EXIT ) + "\n" ).getBytes( StandardCharsets.UTF_8 ) );
+					}
+					return command.read();
+				}
+			}, streamConsumer, streamConsumer, forkedProcessTimeoutInSeconds );
+		}
+
+		// Returns true if all tests pass
+		boolean run() throws MojoFailureException {
+			run = true;
+			try {
+				return completeFork( process );
+			} finally {
+				leaveCgroup( cgroup, " for possible test suite: " + testSuite );
+				release();
 			}
+		}
 
-			// Set debugging JVM arguments if debugging is enabled
-			if( debugForkedProcess ) {
-				cli.createArg()
-				   .setLine( forkedProcessDebuggingArguments() );
+		void cancel() {
+			try {
+				process.call();
+			} catch (CommandLineException e) {
+				getLog().debug( "JVM started ahead of time for " + testSuite + " failed to exit: " + e.getMessage() );
+			} finally {
+				leaveCgroup( cgroup, null );
+				release();
 			}
+		}
 
-			// Set ScalaTest arguments
+		private void release() {
+			if( budget != null ) {
+				budget.release();
+			}
+		}
+	}
+
+	// Returns null if the result cache is disabled or unusable
+	private SuiteResultCache resultCache(String[] args) {
+		if( !useResultCache ) {
+			return null;
+		}
+		if( !resultCacheDirectory.isDirectory() && !resultCacheDirectory.mkdirs() ) {
+			getLog().warn( "Cannot create result cache directory " + resultCacheDirectory + ". Result cache is disabled." );
+			return null;
+		}
+		try {
+			return new SuiteResultCache( resultCacheDirectory,
+			                             resultCacheMaxSize * 1024L * 1024L,
+			                             resultCacheClassDirectories(),
+			                             resultCacheFingerprint( args ),
+			                             getLog() );
+		} catch (IOException e) {
+			getLog().warn( "Unable to fingerprint the test classpath. Result cache is disabled: " + e.getMessage() );
+			return null;
+		}
+	}
+
+	boolean isTestSuite(TestClassesCollector collector, String classPathEnv, String testSuite) throws MojoFailureException {
+		boolean isTestSuite = collector.isClassATestSuite( getLog(),
+		                                                   project.getBasedir()
+		                                                          .getAbsolutePath(),
+		                                                   classPathEnv,
+		                                                   testClassesPath(),
+		                                                   testSuite );
+		if( !isTestSuite ) {
+			getLog().info( String.format( "Class %s doesn't appear to be a test suite. Skipping.", testSuite ) );
+		}
+		return isTestSuite;
+	}
+
+	// Like isTestSuite for each of the classes, but with a single fork. Returns the test suites among them
+	private List<String> testSuites(TestClassesCollector collector, String classPathEnv, List<String> classes) throws MojoFailureException {
+		if( classes.isEmpty() ) {
+			return classes;
+		}
+		List<String> testSuites = collector.testSuites( getLog(),
+		                                                project.getBasedir()
+		                                                       .getAbsolutePath(),
+		                                                classPathEnv + File.pathSeparator + pluginClasspathElement(),
+		                                                classes );
+		Set<String> suites = new HashSet<String>( testSuites );
+		for( String cls : classes ) {
+			if( !suites.contains( cls ) ) {
+				getLog().info( String.format( "Class %s doesn't appear to be a test suite. Skipping.", cls ) );
+			}
+		}
+		return testSuites;
+	}
+
+	// Returns true if all tests pass
+	boolean runForkingOnce(String[] args) throws MojoFailureException {
+		args = orderSuiteSelection( args );
+
+		final Commandline cli = forkCommandline( buildClassPathEnvironment( args ) );
+		File argumentFile = argumentFile( args );
+		try {
+			addRunnerArguments( cli, args, argumentFile );
+			return executeFork( cli, "", null );
+		} finally {
+			deleteArgumentFile( argumentFile );
+		}
+	}
+
+	// Passes the arguments through argumentFile, unless that is null
+	private void addRunnerArguments(Commandline cli, String[] args, File argumentFile) {
+		// Set ScalaTest arguments
+		if( argumentFile != null ) {
+			cli.createArg()
+			   .setValue( ArgumentFileRunner.class.getName() );
+			cli.createArg()
+			   .setFile( argumentFile );
+		} else {
 			cli.createArg()
 			   .setValue( "org.scalatest.tools.Runner" );
 			for( final String arg : args ) {
 				cli.createArg()
 				   .setValue( arg );
 			}
+		}
 
+		if( eventChannel != null ) {
 			cli.createArg()
-			   .setValue( "-s" );
+			   .setValue( "-C" );
 			cli.createArg()
-			   .setValue( testSuite );
+			   .setValue( EventChannel.REPORTER );
+		}
+	}
 
-			final StreamConsumer streamConsumer = line -> System.out.println( line );
+	private boolean exceedsArgumentFileThreshold(String[] args) {
+		if( argumentFileThreshold <= 0 ) {
+			return false;
+		}
+		long length = 0;
+		for( String arg : args ) {
+			length += arg.length() + 1;
+		}
+		return length > argumentFileThreshold;
+	}
 
-			try {
-				if( collector.isClassATestSuite( getLog(),
-				                                 project.getBasedir()
-				                                        .getAbsolutePath(),
-				                                 classPathEnv,
-				                                 classesPath,
-				                                 testSuite ) ) {
-
-					// Log command string
-					final String commandLogStatement = "Forking ScalaTest via: " + cli + " for possible test suite: " + testSuite;
-					if( logForkedProcessCommand ) {
-						getLog().info( commandLogStatement );
-					} else {
-						getLog().debug( commandLogStatement );
-					}
-					final int result = CommandLineUtils.executeCommandLine( cli, streamConsumer, streamConsumer, forkedProcessTimeoutInSeconds );
-					if( result != 0 ) {
-						return false;
-					}
-				} else {
-					getLog().info( String.format( "Class %s doesn't appear to be a test suite. Skipping.", testSuite ) );
-				}
-			} catch (final CommandLineTimeOutException e) {
-				throw new MojoFailureException( String.format( "Timed out after %d seconds waiting for forked process to complete.", forkedProcessTimeoutInSeconds ) );
-			} catch (final CommandLineException e) {
-				throw new MojoFailureException( "Exception while executing forked process.", e );
+	//
+	// Writes the arguments to a new file in the build directory if they
+	// exceed argumentFileThreshold. Returns null if they don't, so that
+	// they are passed on the command line.
+	//
+	private File argumentFile(String[] args) throws MojoFailureException {
+		if( !exceedsArgumentFileThreshold( args ) ) {
+			return null;
+		}
+		File directory = new File( project.getBuild()
+		                                  .getDirectory() );
+		try {
+			if( !directory.isDirectory() && !directory.mkdirs() ) {
+				throw new IOException( "Cannot create directory " + directory );
 			}
+			File argumentFile = File.createTempFile( "scalatest-args", ".txt", directory );
+			ArgumentFileRunner.write( argumentFile, Arrays.asList( args ) );
+			getLog().debug( String.format( "Passing %d Runner arguments via %s", args.length, argumentFile ) );
+			return argumentFile;
+		} catch (IOException e) {
+			throw new MojoFailureException( "Unable to write Runner arguments to a file in " + directory, e );
+		}
+	}
 
+	private void deleteArgumentFile(File argumentFile) {
+		if( argumentFile != null && !argumentFile.delete() ) {
+			getLog().debug( "Cannot delete " + argumentFile );
 		}
+	}
 
-		return true;
+	// Returns the JVM options of the startup profile if they apply to a suite, or null
+	private String startupProfileArgLine(String testSuite) {
+		if( !forkStartupProfile || statistics == null ) {
+			return null;
+		}
+		Long duration = statistics.duration( testSuite );
+		if( duration != null && duration > TimeUnit.SECONDS.toMillis( forkStartupProfileMaxDuration ) ) {
+			return null;
+		}
+		return withoutConflictingGC( forkStartupProfileArgLine, argLine );
 	}
 
-	// Returns true if all tests pass
-	private boolean runForkingOnce(String[] args) throws MojoFailureException {
+	// Selects a garbage collector, e.g. -XX:+UseSerialGC or -XX:+UseG1GC
+	private static final Pattern GC_OPTION = Pattern.compile( "-XX:\\+Use\\w+GC" );
+
+	// Drops the garbage collector selected by profileArgLine if argLine selects one too
+	static String withoutConflictingGC(String profileArgLine, String argLine) {
+		if( profileArgLine == null || argLine == null || !GC_OPTION.matcher( argLine )
+		                                                           .find() ) {
+			return profileArgLine;
+		}
+		StringBuilder line = new StringBuilder();
+		for( String option : WHITESPACE.split( profileArgLine.trim() ) ) {
+			if( !option.isEmpty() && !GC_OPTION.matcher( option )
+			                                   .matches() ) {
+				line.append( line.length() == 0 ? "" : " " )
+				    .append( option );
+			}
+		}
+		return line.toString();
+	}
+
+	// Creates the command line of a forked JVM, up to but not including its main class
+	Commandline forkCommandline(String classPathEnv) {
+		return forkCommandline( classPathEnv, null );
+	}
 
+	// Like forkCommandline(String), with additional JVM options that argLine can override, unless they are null
+	Commandline forkCommandline(String classPathEnv, String defaultArgLine) {
 		final Commandline cli = new Commandline();
 		cli.setWorkingDirectory( project.getBasedir() );
 		cli.setExecutable( "java" );
@@ -378,7 +1363,7 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 				cli.addEnvironment( entry.getKey(), entry.getValue() );
 			}
 		}
-		cli.addEnvironment( "CLASSPATH", buildClassPathEnvironment() );
+		cli.addEnvironment( "CLASSPATH", classPathEnv );
 
 		// Set up system properties
 		if( systemProperties != null ) {
@@ -391,6 +1376,15 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 		   .setValue( String.format( "-Dbasedir=%s",
 		                             project.getBasedir()
 		                                    .getAbsolutePath() ) );
+		if( eventChannel != null ) {
+			cli.createArg()
+			   .setValue( String.format( "-D%s=%d", EventChannel.PORT_PROPERTY, eventChannel.port() ) );
+		}
+
+		if( defaultArgLine != null ) {
+			cli.createArg()
+			   .setLine( defaultArgLine );
+		}
 
 		// Set user specified JVM arguments
 		if( argLine != null ) {
@@ -403,31 +1397,85 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 			cli.createArg()
 			   .setLine( forkedProcessDebuggingArguments() );
 		}
+		return cli;
+	}
 
-		// Set ScalaTest arguments
-		cli.createArg()
-		   .setValue( "org.scalatest.tools.Runner" );
-		for( final String arg : args ) {
-			cli.createArg()
-			   .setValue( arg );
+	// Returns true if the forked process exits with 0. Its output is also
+	// added to the given list, unless that is null.
+	private boolean executeFork(Commandline cli, String description, final List<String> output) throws MojoFailureException {
+		return executeFork( cli, description, output, acquireFork() );
+	}
+
+	// Like executeFork, with a permit of the fork budget already taken, which is released when the fork completes
+	private boolean executeFork(Commandline cli, String description, final List<String> output, Semaphore budget) throws MojoFailureException {
+		logForkCommand( cli, description );
+
+		final StreamConsumer streamConsumer = forkConsumer( output );
+		Cgroups.Group cgroup = enterCgroup( cli );
+		try {
+			return completeFork( CommandLineUtils.executeCommandLineAsCallable( cli, null, streamConsumer, streamConsumer, forkedProcessTimeoutInSeconds ) );
+		} catch (final CommandLineException e) {
+			throw new MojoFailureException( "Exception while executing forked process.", e );
+		} finally {
+			leaveCgroup( cgroup, description );
+			if( budget != null ) {
+				budget.release();
+			}
+		}
+	}
+
+	// Makes the fork run in a cgroup of its own. Returns null if forks don't run in cgroups
+	private Cgroups.Group enterCgroup(Commandline cli) {
+		if( cgroups == null ) {
+			return null;
+		}
+		try {
+			Cgroups.Group cgroup = cgroups.newGroup();
+			cgroup.limit( cgroupCpuWeight, cgroupMemoryMax );
+			cgroup.enter( cli );
+			return cgroup;
+		} catch (IOException e) {
+			getLog().debug( "Forking without a cgroup: " + e.getMessage() );
+			return null;
+		}
+	}
+
+	// Logs the resource usage of a completed fork, unless description is null, and removes its cgroup
+	private void leaveCgroup(Cgroups.Group cgroup, String description) {
+		if( cgroup != null ) {
+			if( description != null ) {
+				getLog().info( "Resource usage of forked process" + description + ": " + cgroup.usage() );
+			}
+			cgroup.remove();
 		}
+	}
 
-		// Log command string
-		final String commandLogStatement = "Forking ScalaTest via: " + cli;
+	private void logForkCommand(Commandline cli, String description) {
+		final String commandLogStatement = "Forking ScalaTest via: " + cli + description;
 		if( logForkedProcessCommand ) {
 			getLog().info( commandLogStatement );
 		} else {
 			getLog().debug( commandLogStatement );
 		}
+	}
 
-		final StreamConsumer streamConsumer = new StreamConsumer() {
-
-			public void consumeLine(final String line) {
-				System.out.println( line );
+	// Passes the output of a fork to forkOutput and adds it to the given list, unless that is null
+	private StreamConsumer forkConsumer(final List<String> output) {
+		return line -> {
+			forkOutput( line );
+			if( output != null ) {
+				synchronized( output ) {
+					output.add( line );
+				}
 			}
 		};
+	}
+
+	// Waits for a started fork to exit. Returns true if it exits with 0
+	private boolean completeFork(CommandLineCallable fork) throws MojoFailureException {
 		try {
-			final int result = CommandLineUtils.executeCommandLine( cli, streamConsumer, streamConsumer, forkedProcessTimeoutInSeconds );
+			final int result = fork.call();
+			forkCompleted();
 			return result == 0;
 		} catch (final CommandLineTimeOutException e) {
 			throw new MojoFailureException( String.format( "Timed out after %d seconds waiting for forked process to complete.", forkedProcessTimeoutInSeconds ) );
@@ -436,10 +1484,138 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 		}
 	}
 
-	private String buildClassPathEnvironment() {
+	//
+	// Waits for a permit of the build's fork budget and returns the
+	// semaphore to release it to, or returns null if forks are not limited.
+	//
+	private Semaphore acquireFork() throws MojoFailureException {
+		Semaphore budget = forkBudget();
+		if( budget != null && !budget.tryAcquire() ) {
+			getLog().info( "Waiting for a forked JVM of the build's fork budget to complete." );
+			try {
+				budget.acquire();
+			} catch (InterruptedException e) {
+				Thread.currentThread()
+				      .interrupt();
+				throw new MojoFailureException( "Interrupted while waiting for the fork budget." );
+			}
+		}
+		return budget;
+	}
+
+	// Returns null if forks are not limited
+	Semaphore forkBudget() {
+		if( forkBudget <= 0 ) {
+			return null;
+		}
+		return ForkBudget.of( session == null ? ForkBudget.class : session.getRequest(), forkBudget );
+	}
+
+	// Receives every line printed by a forked process
+	void forkOutput(String line) {
+		System.out.println( line );
+	}
+
+	//
+	// Computes a digest over everything that determines the outcome of a
+	// run: the Runner arguments, the fork settings, the contents of the
+	// output directories and of the other directories on the test
+	// classpath, and the size and modification time of its jars.
+	//
+	String inputsFingerprint(String[] args) throws IOException {
+		Fingerprint fingerprint = forkSettingsFingerprint( args );
+		for( String element : classpathElementsWithOutputDirectories() ) {
+			File file = new File( element );
+			fingerprint.update( element );
+			if( file.isFile() ) {
+				fingerprint.updateStamp( file );
+			} else {
+				fingerprint.update( file );
+			}
+		}
+		return fingerprint.toHex();
+	}
+
+	//
+	// Like inputsFingerprint, but leaves out the class files in the output
+	// directories. The result cache tracks those per suite.
+	//
+	private String resultCacheFingerprint(String[] args) throws IOException {
+		Fingerprint fingerprint = forkSettingsFingerprint( args );
+		Set<File> classDirectories = new HashSet<File>( resultCacheClassDirectories() );
+		for( String element : classpathElementsWithOutputDirectories() ) {
+			File file = new File( element );
+			fingerprint.update( element );
+			if( file.isFile() ) {
+				fingerprint.updateStamp( file );
+			} else if( classDirectories.contains( file.getAbsoluteFile() ) ) {
+				fingerprint.update( file, NOT_CLASS_FILES );
+			} else {
+				fingerprint.update( file );
+			}
+		}
+		return fingerprint.toHex();
+	}
+
+	private static final FileFilter NOT_CLASS_FILES = new FileFilter() {
+
+		public boolean accept(File file) {
+			return !file.getName()
+			            .endsWith( ".class" );
+		}
+	};
+
+	private Fingerprint forkSettingsFingerprint(String[] args) {
+		Fingerprint fingerprint = new Fingerprint();
+		for( String arg : args ) {
+			fingerprint.update( arg );
+		}
+		return fingerprint.update( forkMode )
+		                  .update( shard )
+		                  .update( argLine )
+		                  .update( String.valueOf( environmentVariables ) )
+		                  .update( String.valueOf( systemProperties ) );
+	}
+
+	private Set<String> classpathElementsWithOutputDirectories() {
+		Set<String> elements = new LinkedHashSet<String>();
+		elements.add( outputDirectory.getAbsolutePath() );
+		elements.add( testOutputDirectory.getAbsolutePath() );
+		elements.addAll( testClasspathElements() );
+		return elements;
+	}
+
+	private List<File> resultCacheClassDirectories() {
+		return Arrays.asList( testOutputDirectory.getAbsoluteFile(), outputDirectory.getAbsoluteFile() );
+	}
+
+	// Called whenever a forked process completed
+	void forkCompleted() {
+	}
+
+	// Called whenever the result of a suite was restored from the result cache, with the report files copied back
+	void resultRestored(List<File> reports) {
+	}
+
+	// Overridden by mojos writing reports, so that the result cache can record them
+	File reportsDirectory() {
+		return null;
+	}
+
+	String testClassesPath() {
+		return project.getBuild()
+		              .getTestOutputDirectory()
+		       + "/";
+	}
+
+	private String buildClassPathEnvironment(String[] args) {
 		StringBuffer buf = new StringBuffer();
 		boolean first = true;
-		for( String e : testClasspathElements() ) {
+		List<String> elements = new ArrayList<String>( testClasspathElements() );
+		if( eventChannel != null || exceedsArgumentFileThreshold( args ) ) {
+			elements.add( pluginClasspathElement() );
+		}
+		for( String e : elements ) {
 			if( first ) {
 				first = false;
 			} else {
@@ -450,6 +1626,22 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 		return buf.toString();
 	}
 
+	//
+	// The plugin's own jar, providing the classes that run in the forked
+	// process. Located through a class that depends on neither ScalaTest nor
+	// Maven, as ScalaTest is not available to the plugin inside Maven.
+	//
+	static String pluginClasspathElement() {
+		try {
+			return new File( StandbyRunner.class.getProtectionDomain()
+			                                    .getCodeSource()
+			                                    .getLocation()
+			                                    .toURI() ).getAbsolutePath();
+		} catch (URISyntaxException e) {
+			throw new IllegalStateException( e );
+		}
+	}
+
 	private String forkedProcessDebuggingArguments() {
 		if( debugArgLine == null ) {
 			return String.format( "-Xdebug -Xrunjdwp:transport=dt_socket,server=y,suspend=y,address=%s", debuggerPort );
@@ -491,7 +1683,7 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 	// Have to use the programmatic way of getting the classpath elements
 	// instead of the field-level injection since that apparently doesn't work
 	// for ReporterMojos in maven-2.2 (it does work in maven-3)
-	private List<String> testClasspathElements() {
+	List<String> testClasspathElements() {
 		try {
 			return (List<String>) project.getTestClasspathElements();
 		} catch (DependencyResolutionRequiredException e) {
@@ -502,28 +1694,31 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 		}
 	}
 
+	// Built on first use, the parameters don't change during an execution
+	private List<String> sharedConfiguration;
+
 	// This is the configuration parameters shared by all concrete Mojo subclasses
 	List<String> sharedConfiguration() {
-		return new ArrayList<String>() {
-
-			{
-				addAll( runpath() );
-				addAll( config() );
-				addAll( tagsToInclude() );
-				addAll( tagsToExclude() );
-				addAll( parallel() );
-				addAll( tests() );
-				addAll( suites() );
-				addAll( suffixes() );
-				addAll( membersOnlySuites() );
-				addAll( wildcardSuites() );
-				addAll( testNGConfigFiles() );
-				addAll( memoryFiles() );
-				addAll( testsFiles() );
-				// addAll( junitClasses() );
-				addAll( spanScaleFactor() );
-			}
-		};
+		if( sharedConfiguration == null ) {
+			List<String> list = new ArrayList<String>();
+			list.addAll( runpath() );
+			list.addAll( config() );
+			list.addAll( tagsToInclude() );
+			list.addAll( tagsToExclude() );
+			list.addAll( parallel() );
+			list.addAll( tests() );
+			list.addAll( suites() );
+			list.addAll( suffixes() );
+			list.addAll( membersOnlySuites() );
+			list.addAll( wildcardSuites() );
+			list.addAll( testNGConfigFiles() );
+			list.addAll( memoryFiles() );
+			list.addAll( testsFiles() );
+			// list.addAll( junitClasses() );
+			list.addAll( spanScaleFactor() );
+			sharedConfiguration = Collections.unmodifiableList( list );
+		}
+		return sharedConfiguration;
 	}
 
 	private List<String> config() {
@@ -595,7 +1790,7 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 				String trimStr = str.trim();
 
 				if( trimStr.length() > 0 ) {
-					String[] splits = trimStr.split( "(?s)\\s", 2 );
+					String[] splits = WHITESPACE.split( trimStr, 2 );
 					if( splits.length > 1 ) {
 						suite = splits[0];
 						test = splits[1].trim();
@@ -611,7 +1806,7 @@ abstract class AbstractScalaTestMojo extends AbstractMojo {
 	// Adds a -t or -z arg for specified test name. Uses -t if name is
 	// prefixed by an '@' sign, or -z otherwise.
 	//
-	private void addTest(List list, String testParm) {
+	private static void addTest(List list, String testParm) {
 		if( testParm != null ) {
 			String test = testParm.trim();
 
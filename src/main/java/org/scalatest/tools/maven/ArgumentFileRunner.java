@@ -0,0 +1,58 @@
+package org.scalatest.tools.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Main class of forked processes whose Runner arguments are too many to pass on the command line. The first argument
+ * is a file holding one Runner argument per line, escaped with {@link WatchRunner#escape(String)}. The remaining
+ * arguments are appended to those read from the file, then everything is passed to ScalaTest's Runner.
+ * <p>
+ * This class runs in the forked process and must not depend on Maven.
+ * </p>
+ */
+public final class ArgumentFileRunner {
+
+	private ArgumentFileRunner() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		List<String> runnerArgs = read( new File( args[0] ) );
+		for( int i = 1; i < args.length; i++ ) {
+			runnerArgs.add( args[i] );
+		}
+		Method main = Class.forName( "org.scalatest.tools.Runner" )
+		                   .getMethod( "main", String[].class );
+		try {
+			main.invoke( null, new Object[] { runnerArgs.toArray( new String[runnerArgs.size()] ) } );
+		} catch (InvocationTargetException e) {
+			Throwable target = e.getTargetException();
+			if( target instanceof Error ) {
+				throw (Error) target;
+			}
+			throw (Exception) target;
+		}
+	}
+
+	static void write(File file, List<String> args) throws IOException {
+		List<String> lines = new ArrayList<String>( args.size() );
+		for( String arg : args ) {
+			lines.add( WatchRunner.escape( arg ) );
+		}
+		Files.write( file.toPath(), lines, StandardCharsets.UTF_8 );
+	}
+
+	static List<String> read(File file) throws IOException {
+		List<String> args = new ArrayList<String>();
+		for( String line : Files.readAllLines( file.toPath(), StandardCharsets.UTF_8 ) ) {
+			args.add( WatchRunner.unescape( line ) );
+		}
+		return args;
+	}
+}
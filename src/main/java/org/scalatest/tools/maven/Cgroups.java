@@ -0,0 +1,291 @@
+package org.scalatest.tools.maven;
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.cli.Commandline;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs forked processes in cgroups of their own on Linux with cgroup v2. The cgroups of the forks are created below a
+ * cgroup for the mojo execution, which is created next to the Maven process' own cgroup, since controllers can only be
+ * enabled for the children of a cgroup without processes. This requires the parent of the Maven process' cgroup to be
+ * delegated to the user running Maven, as with user sessions and services managed by systemd.
+ * <p>
+ * Forks are moved into their cgroup by a shell, which writes its process id to the cgroup and then replaces itself
+ * with the forked command.
+ * </p>
+ */
+final class Cgroups {
+
+	// Moves the shell into the cgroup whose cgroup.procs is its first argument, then runs the remaining ones
+	private static final String ENTER_CGROUP = "echo $$ > \"$0\" && exec \"$@\"";
+
+	private final File root;
+
+	// The shell moving forks into their cgroup
+	private final String shell;
+
+	private final Log log;
+
+	private final boolean cpu;
+
+	private final boolean memory;
+
+	private final AtomicInteger forks = new AtomicInteger();
+
+	Cgroups(File root, String shell, boolean cpu, boolean memory, Log log) {
+		this.root = root;
+		this.shell = shell;
+		this.cpu = cpu;
+		this.memory = memory;
+		this.log = log;
+	}
+
+	/**
+	 * Creates the cgroup of a mojo execution. Returns null if cgroup v2 is not available or not writable, in which case
+	 * the reason is logged at debug level.
+	 */
+	static Cgroups create(String name, Log log) {
+		if( !System.getProperty( "os.name" )
+		           .startsWith( "Linux" ) ) {
+			log.debug( "cgroups are only available on Linux." );
+			return null;
+		}
+		File parent;
+		try {
+			File mountPoint = mountPoint();
+			String path = ownCgroup();
+			if( mountPoint == null || path == null ) {
+				log.debug( "cgroup v2 is not available." );
+				return null;
+			}
+			// the root cgroup has no parent to create a sibling in, so the cgroup is created below it
+			parent = path.equals( "/" ) ? mountPoint : new File( mountPoint, path ).getParentFile();
+		} catch (IOException e) {
+			log.debug( "Unable to set up cgroups: " + e.getMessage() );
+			return null;
+		}
+		return create( parent, name, "sh", log );
+	}
+
+	/**
+	 * Creates the cgroup of a mojo execution below the given parent cgroup, moving forks into their cgroups with the
+	 * given shell. Returns null if that is not possible, in which case the reason is logged at debug level.
+	 */
+	static Cgroups create(File parent, String name, String shell, Log log) {
+		File root = new File( parent, name );
+		if( !root.mkdir() ) {
+			log.debug( "Cannot create cgroup " + root + "." );
+			return null;
+		}
+		try {
+			if( !canMoveProcesses( root, shell ) ) {
+				log.debug( "Cannot move processes into cgroup " + root + "." );
+				root.delete();
+				return null;
+			}
+			String controllers = read( new File( root, "cgroup.controllers" ) );
+			boolean cpu = enable( root, controllers, "cpu", log );
+			boolean memory = enable( root, controllers, "memory", log );
+			return new Cgroups( root, shell, cpu, memory, log );
+		} catch (IOException e) {
+			log.debug( "Unable to set up cgroups: " + e.getMessage() );
+			root.delete();
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread()
+			      .interrupt();
+			root.delete();
+			return null;
+		}
+	}
+
+	// The mount point of the cgroup v2 hierarchy, or null if it isn't mounted
+	private static File mountPoint() throws IOException {
+		for( String line : Files.readAllLines( new File( "/proc/self/mounts" ).toPath(), StandardCharsets.UTF_8 ) ) {
+			String[] fields = line.split( " " );
+			if( fields.length > 2 && fields[2].equals( "cgroup2" ) ) {
+				return new File( fields[1] );
+			}
+		}
+		return null;
+	}
+
+	// The path of the Maven process' cgroup in the cgroup v2 hierarchy, or null if it isn't in one
+	private static String ownCgroup() throws IOException {
+		for( String line : Files.readAllLines( new File( "/proc/self/cgroup" ).toPath(), StandardCharsets.UTF_8 ) ) {
+			if( line.startsWith( "0::" ) ) {
+				return line.substring( 3 );
+			}
+		}
+		return null;
+	}
+
+	private static boolean enable(File cgroup, String controllers, String controller, Log log) {
+		if( !( " " + controllers + " " ).contains( " " + controller + " " ) ) {
+			log.debug( "cgroup controller " + controller + " is not available." );
+			return false;
+		}
+		try {
+			write( new File( cgroup, "cgroup.subtree_control" ), "+" + controller );
+			return true;
+		} catch (IOException e) {
+			log.debug( "Unable to enable cgroup controller " + controller + ": " + e.getMessage() );
+			return false;
+		}
+	}
+
+	//
+	// Moving a process requires write access to the common ancestor of its
+	// current and new cgroup. Probed before any controller is enabled, as
+	// the probe's cgroup must be removed again.
+	//
+	private static boolean canMoveProcesses(File root, String shell) throws IOException, InterruptedException {
+		File probe = new File( root, "probe" );
+		if( !probe.mkdir() ) {
+			throw new IOException( "Cannot create cgroup " + probe );
+		}
+		try {
+			Process process = new ProcessBuilder( shell, "-c", ENTER_CGROUP, new File( probe, "cgroup.procs" ).getAbsolutePath(), "true" ).start();
+			return process.waitFor() == 0;
+		} finally {
+			probe.delete();
+		}
+	}
+
+	/**
+	 * Creates a cgroup for a fork.
+	 */
+	Group newGroup() throws IOException {
+		File dir = new File( root, "fork-" + forks.incrementAndGet() );
+		if( !dir.mkdir() ) {
+			throw new IOException( "Cannot create cgroup " + dir );
+		}
+		return new Group( dir );
+	}
+
+	/**
+	 * Removes the cgroup of the mojo execution, which must have no cgroups of forks left.
+	 */
+	void close() {
+		if( !root.delete() ) {
+			log.debug( "Cannot remove cgroup " + root + "." );
+		}
+	}
+
+	/**
+	 * The cgroup of a single fork.
+	 */
+	final class Group {
+
+		private final File dir;
+
+		private Group(File dir) {
+			this.dir = dir;
+		}
+
+		/**
+		 * Sets the CPU weight, unless it is 0, and the memory limit, unless it is null. Limits whose controller is not
+		 * available are skipped.
+		 */
+		void limit(int cpuWeight, String memoryMax) {
+			try {
+				if( cpuWeight > 0 && cpu ) {
+					write( new File( dir, "cpu.weight" ), Integer.toString( cpuWeight ) );
+				}
+				if( memoryMax != null && memory ) {
+					write( new File( dir, "memory.max" ), memoryMax.trim() );
+				}
+			} catch (IOException e) {
+				log.warn( "Unable to limit resources of cgroup " + dir + ": " + e.getMessage() );
+			}
+		}
+
+		/**
+		 * Makes a command line run its command in this cgroup.
+		 */
+		void enter(Commandline cli) {
+			String executable = cli.getLiteralExecutable();
+			cli.createArg( true )
+			   .setValue( executable );
+			cli.createArg( true )
+			   .setValue( procs() );
+			cli.createArg( true )
+			   .setValue( ENTER_CGROUP );
+			cli.createArg( true )
+			   .setValue( "-c" );
+			cli.setExecutable( shell );
+		}
+
+		private String procs() {
+			return new File( dir, "cgroup.procs" ).getAbsolutePath();
+		}
+
+		/**
+		 * Describes the peak memory and the CPU time used by the processes of the cgroup so far, as far as the kernel
+		 * reports them.
+		 */
+		String usage() {
+			StringBuilder usage = new StringBuilder();
+			try {
+				File peak = new File( dir, "memory.peak" );
+				if( peak.isFile() ) {
+					usage.append( String.format( "peak memory %d MB, ", Long.parseLong( read( peak ) ) / ( 1024 * 1024 ) ) );
+				}
+				long user = 0;
+				long system = 0;
+				for( String line : Files.readAllLines( new File( dir, "cpu.stat" ).toPath(), StandardCharsets.UTF_8 ) ) {
+					if( line.startsWith( "user_usec " ) ) {
+						user = Long.parseLong( line.substring( "user_usec ".length() ) );
+					} else if( line.startsWith( "system_usec " ) ) {
+						system = Long.parseLong( line.substring( "system_usec ".length() ) );
+					}
+				}
+				usage.append( String.format( "CPU time %.1f s user, %.1f s system", user / 1e6, system / 1e6 ) );
+				if( oomKilled() ) {
+					usage.append( ", killed for exceeding the memory limit" );
+				}
+			} catch (IOException | NumberFormatException e) {
+				log.debug( "Unable to read resource usage of cgroup " + dir + ": " + e.getMessage() );
+			}
+			return usage.toString();
+		}
+
+		private boolean oomKilled() throws IOException {
+			File events = new File( dir, "memory.events" );
+			if( !events.isFile() ) {
+				return false;
+			}
+			for( String line : Files.readAllLines( events.toPath(), StandardCharsets.UTF_8 ) ) {
+				if( line.startsWith( "oom_kill " ) && !line.equals( "oom_kill 0" ) ) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Removes the cgroup once its processes have exited.
+		 */
+		void remove() {
+			if( !dir.delete() ) {
+				log.debug( "Cannot remove cgroup " + dir + "." );
+			}
+		}
+	}
+
+	private static String read(File file) throws IOException {
+		List<String> lines = Files.readAllLines( file.toPath(), StandardCharsets.UTF_8 );
+		return lines.isEmpty() ? "" : lines.get( 0 )
+		                                 .trim();
+	}
+
+	private static void write(File file, String value) throws IOException {
+		Files.write( file.toPath(), value.getBytes( StandardCharsets.UTF_8 ) );
+	}
+}
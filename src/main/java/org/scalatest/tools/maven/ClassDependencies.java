@@ -0,0 +1,111 @@
+package org.scalatest.tools.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resolves classes to their class files in a set of class directories, usually the project's output directories, and
+ * follows the references between them. Parsed class files are memoized until the file is modified.
+ */
+final class ClassDependencies {
+
+	private static final class Parsed {
+
+		final long lastModified;
+
+		final ClassFile classFile;
+
+		Parsed(long lastModified, ClassFile classFile) {
+			this.lastModified = lastModified;
+			this.classFile = classFile;
+		}
+	}
+
+	private final List<File> classDirectories;
+
+	private final Map<File, Parsed> parsed = new HashMap<File, Parsed>();
+
+	ClassDependencies(List<File> classDirectories) {
+		this.classDirectories = classDirectories;
+	}
+
+	/**
+	 * Returns the class file of a class in one of the class directories, or null if it is not found there.
+	 */
+	File classFile(String cls) {
+		String relative = cls.replace( '.', File.separatorChar ) + ".class";
+		for( File dir : classDirectories ) {
+			File file = new File( dir, relative );
+			if( file.isFile() ) {
+				return file;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the parsed class file of a class in one of the class directories, or null if it is not found there.
+	 */
+	synchronized ClassFile read(String cls) throws IOException {
+		File file = classFile( cls );
+		if( file == null ) {
+			return null;
+		}
+		Parsed entry = parsed.get( file );
+		if( entry == null || entry.lastModified != file.lastModified() ) {
+			entry = new Parsed( file.lastModified(), ClassFile.read( file ) );
+			parsed.put( file, entry );
+		}
+		return entry.classFile;
+	}
+
+	/**
+	 * Collects the class files of a class, its nested classes and everything reachable from them that lives in one of
+	 * the class directories, sorted by class name. Classes from jars are not followed.
+	 */
+	synchronized Map<String, File> transitive(String cls) throws IOException {
+		Map<String, File> found = new TreeMap<String, File>();
+		Deque<String> pending = new ArrayDeque<String>();
+		pending.add( cls );
+		pending.addAll( nestedClasses( cls ) );
+		while( !pending.isEmpty() ) {
+			String next = pending.poll();
+			if( found.containsKey( next ) ) {
+				continue;
+			}
+			ClassFile classFile = read( next );
+			if( classFile == null ) {
+				continue;
+			}
+			found.put( next, classFile( next ) );
+			pending.addAll( classFile.referencedClasses );
+		}
+		return found;
+	}
+
+	private List<String> nestedClasses(String cls) {
+		List<String> nested = new ArrayList<String>();
+		int lastDot = cls.lastIndexOf( '.' );
+		String packagePath = lastDot < 0 ? "" : cls.substring( 0, lastDot )
+		                                           .replace( '.', File.separatorChar );
+		String prefix = cls.substring( lastDot + 1 ) + "$";
+		for( File dir : classDirectories ) {
+			String[] names = new File( dir, packagePath ).list();
+			if( names != null ) {
+				for( String name : names ) {
+					if( name.startsWith( prefix ) && name.endsWith( ".class" ) ) {
+						nested.add( cls + name.substring( prefix.length() - 1, name.length() - ".class".length() ) );
+					}
+				}
+			}
+		}
+		return nested;
+	}
+}
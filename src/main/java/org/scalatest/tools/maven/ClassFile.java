@@ -0,0 +1,220 @@
+package org.scalatest.tools.maven;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Minimal reader for compiled class files. Only the parts the mojos need are decoded, so suites can be inspected from
+ * within the Maven JVM without loading them (see the note in {@link TestClassesCollector#isClassATestSuite}).
+ */
+final class ClassFile {
+
+	private static final int MAGIC = 0xCAFEBABE;
+
+	private static final int ACC_INTERFACE = 0x0200;
+
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	/**
+	 * Fully qualified name of the class.
+	 */
+	final String name;
+
+	/**
+	 * Fully qualified names of the super class, or null for <code>java.lang.Object</code>, followed by the directly
+	 * implemented interfaces.
+	 */
+	final List<String> supertypes;
+
+	/**
+	 * Whether the class is neither abstract nor an interface.
+	 */
+	final boolean concrete;
+
+	/**
+	 * Fully qualified names of the annotations present on the class itself.
+	 */
+	final Set<String> annotations;
+
+	/**
+	 * Fully qualified names of all classes referenced from the constant pool, including the class itself.
+	 */
+	final Set<String> referencedClasses;
+
+	private ClassFile(String name, List<String> supertypes, boolean concrete, Set<String> annotations, Set<String> referencedClasses) {
+		this.name = name;
+		this.supertypes = Collections.unmodifiableList( supertypes );
+		this.concrete = concrete;
+		this.annotations = Collections.unmodifiableSet( annotations );
+		this.referencedClasses = Collections.unmodifiableSet( referencedClasses );
+	}
+
+	static ClassFile read(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) )) {
+			if( in.readInt() != MAGIC ) {
+				throw new IOException( "Not a class file: " + file );
+			}
+			in.readUnsignedShort(); // minor version
+			in.readUnsignedShort(); // major version
+
+			Object[] pool = readConstantPool( in );
+
+			int access = in.readUnsignedShort();
+			String name = className( pool, in.readUnsignedShort() );
+			List<String> supertypes = new ArrayList<String>();
+			int superClass = in.readUnsignedShort();
+			supertypes.add( superClass == 0 ? null : className( pool, superClass ) );
+			int interfaces = in.readUnsignedShort();
+			for( int i = 0; i < interfaces; i++ ) {
+				supertypes.add( className( pool, in.readUnsignedShort() ) );
+			}
+
+			skipMembers( in ); // fields
+			skipMembers( in ); // methods
+
+			Set<String> annotations = new LinkedHashSet<String>();
+			int attributes = in.readUnsignedShort();
+			for( int i = 0; i < attributes; i++ ) {
+				String attribute = (String) pool[in.readUnsignedShort()];
+				int length = in.readInt();
+				if( "RuntimeVisibleAnnotations".equals( attribute ) || "RuntimeInvisibleAnnotations".equals( attribute ) ) {
+					int count = in.readUnsignedShort();
+					for( int j = 0; j < count; j++ ) {
+						annotations.add( descriptorToName( (String) pool[in.readUnsignedShort()] ) );
+						skipElementValuePairs( in );
+					}
+				} else {
+					in.skipBytes( length );
+				}
+			}
+			boolean concrete = ( access & ( ACC_INTERFACE | ACC_ABSTRACT ) ) == 0;
+			return new ClassFile( name, supertypes, concrete, annotations, referencedClasses( pool ) );
+		}
+	}
+
+	//
+	// Reads the constant pool, keeping Utf8 entries as strings and Class
+	// entries as the index of their name. Everything else is skipped.
+	//
+	private static Object[] readConstantPool(DataInputStream in) throws IOException {
+		int count = in.readUnsignedShort();
+		Object[] pool = new Object[count];
+		for( int i = 1; i < count; i++ ) {
+			int tag = in.readUnsignedByte();
+			switch( tag ) {
+				case 1: // Utf8
+					pool[i] = in.readUTF();
+					break;
+				case 7: // Class
+					pool[i] = Integer.valueOf( in.readUnsignedShort() );
+					break;
+				case 8: // String
+				case 16: // MethodType
+				case 19: // Module
+				case 20: // Package
+					in.skipBytes( 2 );
+					break;
+				case 15: // MethodHandle
+					in.skipBytes( 3 );
+					break;
+				case 3: // Integer
+				case 4: // Float
+				case 9: // Fieldref
+				case 10: // Methodref
+				case 11: // InterfaceMethodref
+				case 12: // NameAndType
+				case 17: // Dynamic
+				case 18: // InvokeDynamic
+					in.skipBytes( 4 );
+					break;
+				case 5: // Long
+				case 6: // Double
+					in.skipBytes( 8 );
+					i++;
+					break;
+				default:
+					throw new IOException( "Unknown constant pool tag " + tag );
+			}
+		}
+		return pool;
+	}
+
+	private static Set<String> referencedClasses(Object[] pool) {
+		Set<String> classes = new LinkedHashSet<String>();
+		for( Object entry : pool ) {
+			if( entry instanceof Integer ) {
+				String internalName = (String) pool[(Integer) entry];
+				// array classes are referenced by descriptor, e.g. "[[Lcom/example/Foo;"
+				int dimensions = 0;
+				while( internalName.charAt( dimensions ) == '[' ) {
+					dimensions++;
+				}
+				if( dimensions == 0 ) {
+					classes.add( internalName.replace( '/', '.' ) );
+				} else if( internalName.charAt( dimensions ) == 'L' ) {
+					classes.add( descriptorToName( internalName.substring( dimensions ) ) );
+				}
+			}
+		}
+		return classes;
+	}
+
+	private static String className(Object[] pool, int index) {
+		return ( (String) pool[(Integer) pool[index]] ).replace( '/', '.' );
+	}
+
+	private static String descriptorToName(String descriptor) {
+		// "Lcom/example/Isolated;" -> "com.example.Isolated"
+		return descriptor.substring( 1, descriptor.length() - 1 )
+		                 .replace( '/', '.' );
+	}
+
+	private static void skipMembers(DataInputStream in) throws IOException {
+		int count = in.readUnsignedShort();
+		for( int i = 0; i < count; i++ ) {
+			in.skipBytes( 6 ); // access flags, name, descriptor
+			int attributes = in.readUnsignedShort();
+			for( int j = 0; j < attributes; j++ ) {
+				in.skipBytes( 2 );
+				in.skipBytes( in.readInt() );
+			}
+		}
+	}
+
+	private static void skipElementValuePairs(DataInputStream in) throws IOException {
+		int pairs = in.readUnsignedShort();
+		for( int i = 0; i < pairs; i++ ) {
+			in.skipBytes( 2 ); // element name
+			skipElementValue( in );
+		}
+	}
+
+	private static void skipElementValue(DataInputStream in) throws IOException {
+		int tag = in.readUnsignedByte();
+		switch( tag ) {
+			case 'e':
+				in.skipBytes( 4 );
+				break;
+			case '@':
+				in.skipBytes( 2 );
+				skipElementValuePairs( in );
+				break;
+			case '[':
+				int values = in.readUnsignedShort();
+				for( int i = 0; i < values; i++ ) {
+					skipElementValue( in );
+				}
+				break;
+			default:
+				in.skipBytes( 2 );
+		}
+	}
+}
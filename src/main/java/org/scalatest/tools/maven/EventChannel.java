@@ -0,0 +1,81 @@
+package org.scalatest.tools.maven;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format of the events sent by {@link EventChannelReporter} in a forked process to the {@link EventChannelServer}
+ * of the mojo. Every event is a type byte followed by its fields. Strings are written as their UTF-8 length and bytes,
+ * with a length of -1 for null. Durations are milliseconds, or -1 if unknown.
+ * <p>
+ * This class is loaded in the forked process too, so it must not depend on Maven.
+ * </p>
+ */
+final class EventChannel {
+
+	/**
+	 * System property holding the port the reporter connects to.
+	 */
+	static final String PORT_PROPERTY = "scalatest.maven.eventChannelPort";
+
+	/**
+	 * Class name of the reporter, passed to the Runner by name as it implements a ScalaTest type, which the mojo can't
+	 * load.
+	 */
+	static final String REPORTER = "org.scalatest.tools.maven.EventChannelReporter";
+
+	// suiteName, suiteClassName
+	static final byte SUITE_STARTING = 1;
+
+	// suiteName, suiteClassName, duration
+	static final byte SUITE_COMPLETED = 2;
+
+	// suiteName, suiteClassName, message, duration
+	static final byte SUITE_ABORTED = 3;
+
+	// suiteName, suiteClassName, testName
+	static final byte TEST_STARTING = 4;
+
+	// suiteName, suiteClassName, testName, duration
+	static final byte TEST_SUCCEEDED = 5;
+
+	// suiteName, suiteClassName, testName, message, duration
+	static final byte TEST_FAILED = 6;
+
+	// suiteName, suiteClassName, testName
+	static final byte TEST_IGNORED = 7;
+
+	// suiteName, suiteClassName, testName, message, duration
+	static final byte TEST_CANCELED = 8;
+
+	// suiteName, suiteClassName, testName, duration
+	static final byte TEST_PENDING = 9;
+
+	// duration
+	static final byte RUN_COMPLETED = 10;
+
+	private EventChannel() {
+	}
+
+	static void writeString(DataOutputStream out, String s) throws IOException {
+		if( s == null ) {
+			out.writeInt( -1 );
+		} else {
+			byte[] bytes = s.getBytes( StandardCharsets.UTF_8 );
+			out.writeInt( bytes.length );
+			out.write( bytes );
+		}
+	}
+
+	static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if( length < 0 ) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully( bytes );
+		return new String( bytes, StandardCharsets.UTF_8 );
+	}
+}
@@ -0,0 +1,119 @@
+package org.scalatest.tools.maven;
+
+import org.scalatest.ResourcefulReporter;
+import org.scalatest.events.*;
+import scala.Option;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import static org.scalatest.tools.maven.EventChannel.*;
+
+/**
+ * ScalaTest reporter that runs in the forked process and sends test events in the {@link EventChannel} format to the
+ * mojo, which listens on the port given by the {@link EventChannel#PORT_PROPERTY} system property. Events are buffered
+ * and flushed at the end of each suite.
+ * <p>
+ * The reporter is added to the Runner arguments by the mojo and must not depend on Maven. If the mojo can't be reached
+ * events are dropped; the run itself is never affected.
+ * </p>
+ */
+public class EventChannelReporter implements ResourcefulReporter {
+
+	private DataOutputStream out;
+
+	public EventChannelReporter() {
+		String port = System.getProperty( PORT_PROPERTY );
+		if( port != null ) {
+			try {
+				Socket socket = new Socket( InetAddress.getLoopbackAddress(), Integer.parseInt( port ) );
+				out = new DataOutputStream( new BufferedOutputStream( socket.getOutputStream(), 64 * 1024 ) );
+			} catch (IOException | NumberFormatException e) {
+				System.err.println( "Unable to connect to the ScalaTest Maven plugin: " + e );
+			}
+		}
+	}
+
+	public synchronized void apply(Event event) {
+		if( out == null ) {
+			return;
+		}
+		try {
+			if( event instanceof TestStarting ) {
+				TestStarting e = (TestStarting) event;
+				test( TEST_STARTING, e.suiteName(), e.suiteClassName(), e.testName() );
+			} else if( event instanceof TestSucceeded ) {
+				TestSucceeded e = (TestSucceeded) event;
+				test( TEST_SUCCEEDED, e.suiteName(), e.suiteClassName(), e.testName() );
+				duration( e.duration() );
+			} else if( event instanceof TestFailed ) {
+				TestFailed e = (TestFailed) event;
+				test( TEST_FAILED, e.suiteName(), e.suiteClassName(), e.testName() );
+				writeString( out, e.message() );
+				duration( e.duration() );
+			} else if( event instanceof TestIgnored ) {
+				TestIgnored e = (TestIgnored) event;
+				test( TEST_IGNORED, e.suiteName(), e.suiteClassName(), e.testName() );
+			} else if( event instanceof TestCanceled ) {
+				TestCanceled e = (TestCanceled) event;
+				test( TEST_CANCELED, e.suiteName(), e.suiteClassName(), e.testName() );
+				writeString( out, e.message() );
+				duration( e.duration() );
+			} else if( event instanceof TestPending ) {
+				TestPending e = (TestPending) event;
+				test( TEST_PENDING, e.suiteName(), e.suiteClassName(), e.testName() );
+				duration( e.duration() );
+			} else if( event instanceof SuiteStarting ) {
+				SuiteStarting e = (SuiteStarting) event;
+				suite( SUITE_STARTING, e.suiteName(), e.suiteClassName() );
+			} else if( event instanceof SuiteCompleted ) {
+				SuiteCompleted e = (SuiteCompleted) event;
+				suite( SUITE_COMPLETED, e.suiteName(), e.suiteClassName() );
+				duration( e.duration() );
+				out.flush();
+			} else if( event instanceof SuiteAborted ) {
+				SuiteAborted e = (SuiteAborted) event;
+				suite( SUITE_ABORTED, e.suiteName(), e.suiteClassName() );
+				writeString( out, e.message() );
+				duration( e.duration() );
+				out.flush();
+			} else if( event instanceof RunCompleted ) {
+				out.writeByte( RUN_COMPLETED );
+				duration( ( (RunCompleted) event ).duration() );
+				out.flush();
+			}
+		} catch (IOException e) {
+			System.err.println( "Lost connection to the ScalaTest Maven plugin: " + e );
+			out = null;
+		}
+	}
+
+	public synchronized void dispose() {
+		if( out != null ) {
+			try {
+				out.close();
+			} catch (IOException e) {
+				// nothing left to report to
+			}
+			out = null;
+		}
+	}
+
+	private void suite(byte type, String suiteName, Option<String> suiteClassName) throws IOException {
+		out.writeByte( type );
+		writeString( out, suiteName );
+		writeString( out, suiteClassName.isDefined() ? suiteClassName.get() : null );
+	}
+
+	private void test(byte type, String suiteName, Option<String> suiteClassName, String testName) throws IOException {
+		suite( type, suiteName, suiteClassName );
+		writeString( out, testName );
+	}
+
+	private void duration(Option<Object> duration) throws IOException {
+		out.writeLong( duration.isDefined() ? ( (Number) duration.get() ).longValue() : -1L );
+	}
+}
@@ -0,0 +1,251 @@
+package org.scalatest.tools.maven;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.scalatest.tools.maven.EventChannel.*;
+
+/**
+ * Receives the events sent by the {@link EventChannelReporter}s of all forked processes of a run. Each fork connects on
+ * its own, so concurrently running forks are supported.
+ */
+final class EventChannelServer {
+
+	/**
+	 * A failed or aborted test. For an aborted suite, the test name is null.
+	 */
+	static final class TestFailure {
+
+		final String suiteName;
+
+		final String suiteClassName;
+
+		final String testName;
+
+		final String message;
+
+		TestFailure(String suiteName, String suiteClassName, String testName, String message) {
+			this.suiteName = suiteName;
+			this.suiteClassName = suiteClassName;
+			this.testName = testName;
+			this.message = message;
+		}
+
+		@Override
+		public String toString() {
+			return ( suiteClassName != null ? suiteClassName : suiteName ) + ( testName != null ? ": " + testName : "" );
+		}
+	}
+
+	private final Log log;
+
+	private final ServerSocket serverSocket;
+
+	private final Thread acceptor;
+
+	private final List<Thread> readers = new ArrayList<Thread>();
+
+	private final List<TestFailure> failures = new ArrayList<TestFailure>();
+
+	private final Map<String, Long> suiteDurations = new HashMap<String, Long>();
+
+	private int testsSucceeded;
+
+	private int testsFailed;
+
+	private int testsIgnored;
+
+	private int testsCanceled;
+
+	private int testsPending;
+
+	private int suitesCompleted;
+
+	private int suitesAborted;
+
+	EventChannelServer(Log log) throws IOException {
+		this.log = log;
+		serverSocket = new ServerSocket( 0, 50, InetAddress.getLoopbackAddress() );
+		acceptor = new Thread( new Runnable() {
+
+			public void run() {
+				accept();
+			}
+		}, "scalatest-event-channel" );
+		acceptor.setDaemon( true );
+		acceptor.start();
+	}
+
+	int port() {
+		return serverSocket.getLocalPort();
+	}
+
+	private void accept() {
+		while( !serverSocket.isClosed() ) {
+			try {
+				final Socket socket = serverSocket.accept();
+				Thread reader = new Thread( new Runnable() {
+
+					public void run() {
+						read( socket );
+					}
+				}, "scalatest-event-channel-reader" );
+				reader.setDaemon( true );
+				synchronized( readers ) {
+					readers.add( reader );
+				}
+				reader.start();
+			} catch (IOException e) {
+				// closed
+			}
+		}
+	}
+
+	private void read(Socket socket) {
+		try (DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream(), 64 * 1024 ) )) {
+			while( true ) {
+				int type;
+				try {
+					type = in.readByte();
+				} catch (EOFException e) {
+					return;
+				}
+				if( type == RUN_COMPLETED ) {
+					in.readLong();
+					continue;
+				}
+				String suiteName = readString( in );
+				String suiteClassName = readString( in );
+				switch( type ) {
+					case SUITE_STARTING:
+						log.debug( "Starting suite " + suiteName );
+						break;
+					case SUITE_COMPLETED:
+						suiteCompleted( suiteName, suiteClassName, in.readLong() );
+						break;
+					case SUITE_ABORTED:
+						String abortMessage = readString( in );
+						in.readLong();
+						suiteAborted( suiteName, suiteClassName, abortMessage );
+						break;
+					case TEST_STARTING:
+						readString( in );
+						break;
+					case TEST_SUCCEEDED:
+						readString( in );
+						in.readLong();
+						synchronized( this ) {
+							testsSucceeded++;
+						}
+						break;
+					case TEST_FAILED:
+						String failedTest = readString( in );
+						String failMessage = readString( in );
+						in.readLong();
+						testFailed( suiteName, suiteClassName, failedTest, failMessage );
+						break;
+					case TEST_IGNORED:
+						readString( in );
+						synchronized( this ) {
+							testsIgnored++;
+						}
+						break;
+					case TEST_CANCELED:
+						readString( in );
+						readString( in );
+						in.readLong();
+						synchronized( this ) {
+							testsCanceled++;
+						}
+						break;
+					case TEST_PENDING:
+						readString( in );
+						in.readLong();
+						synchronized( this ) {
+							testsPending++;
+						}
+						break;
+					default:
+						throw new IOException( "Unknown event type " + type );
+				}
+			}
+		} catch (IOException e) {
+			log.warn( "Event channel of a forked process failed: " + e.getMessage() );
+		}
+	}
+
+	private synchronized void suiteCompleted(String suiteName, String suiteClassName, long duration) {
+		suitesCompleted++;
+		if( duration >= 0 ) {
+			suiteDurations.put( suiteClassName != null ? suiteClassName : suiteName, duration );
+		}
+		log.info( String.format( "Completed suite %s in %d ms (%d succeeded, %d failed so far)",
+		                         suiteName,
+		                         duration,
+		                         testsSucceeded,
+		                         testsFailed ) );
+	}
+
+	private synchronized void suiteAborted(String suiteName, String suiteClassName, String message) {
+		suitesAborted++;
+		failures.add( new TestFailure( suiteName, suiteClassName, null, message ) );
+		log.info( String.format( "Aborted suite %s: %s", suiteName, message ) );
+	}
+
+	private synchronized void testFailed(String suiteName, String suiteClassName, String testName, String message) {
+		testsFailed++;
+		failures.add( new TestFailure( suiteName, suiteClassName, testName, message ) );
+	}
+
+	/**
+	 * Stops accepting connections and waits until the events of all forks that connected have been read. Must only be
+	 * called once all forks have exited.
+	 */
+	void close() throws InterruptedException {
+		try {
+			serverSocket.close();
+		} catch (IOException e) {
+			// already closed
+		}
+		acceptor.join();
+		List<Thread> all;
+		synchronized( readers ) {
+			all = new ArrayList<Thread>( readers );
+		}
+		for( Thread reader : all ) {
+			reader.join();
+		}
+	}
+
+	synchronized List<TestFailure> failures() {
+		return Collections.unmodifiableList( new ArrayList<TestFailure>( failures ) );
+	}
+
+	// Wall-clock duration of each completed suite, keyed by class name where known
+	synchronized Map<String, Long> suiteDurations() {
+		return Collections.unmodifiableMap( new HashMap<String, Long>( suiteDurations ) );
+	}
+
+	synchronized String summary() {
+		return String.format( "Suites: completed %d, aborted %d. Tests: succeeded %d, failed %d, canceled %d, ignored %d, pending %d",
+		                      suitesCompleted,
+		                      suitesAborted,
+		                      testsSucceeded,
+		                      testsFailed,
+		                      testsCanceled,
+		                      testsIgnored,
+		                      testsPending );
+	}
+}
@@ -0,0 +1,113 @@
+package org.scalatest.tools.maven;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Accumulates a SHA-256 digest over strings and file contents. Used to detect whether the inputs of a test run changed.
+ */
+final class Fingerprint {
+
+	private static final FileFilter ALL_FILES = new FileFilter() {
+
+		public boolean accept(File file) {
+			return true;
+		}
+	};
+
+	private final MessageDigest digest;
+
+	private final byte[] buffer = new byte[64 * 1024];
+
+	Fingerprint() {
+		try {
+			digest = MessageDigest.getInstance( "SHA-256" );
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException( e );
+		}
+	}
+
+	Fingerprint update(String s) {
+		if( s != null ) {
+			digest.update( s.getBytes( StandardCharsets.UTF_8 ) );
+		}
+		// separator, so that ("ab", "c") and ("a", "bc") differ
+		digest.update( (byte) 0 );
+		return this;
+	}
+
+	//
+	// Adds a file's content, or for a directory the relative paths and
+	// contents of all files below it in a stable order. A missing file
+	// is recorded as such.
+	//
+	Fingerprint update(File file) throws IOException {
+		return update( file, ALL_FILES );
+	}
+
+	//
+	// Same as update(File), but for a directory only files accepted by
+	// the filter are added.
+	//
+	Fingerprint update(File file, FileFilter filter) throws IOException {
+		if( file.isDirectory() ) {
+			updateDirectory( file, "", filter );
+		} else if( file.isFile() ) {
+			updateContent( file );
+		} else {
+			update( "<missing>" );
+		}
+		return this;
+	}
+
+	//
+	// Adds a file's size and modification time instead of its content.
+	// Much cheaper for large files that are replaced rather than modified
+	// in place, such as jars.
+	//
+	Fingerprint updateStamp(File file) {
+		return update( file.length() + "@" + file.lastModified() );
+	}
+
+	private void updateDirectory(File dir, String relative, FileFilter filter) throws IOException {
+		File[] children = dir.listFiles();
+		if( children == null ) {
+			return;
+		}
+		Arrays.sort( children );
+		for( File child : children ) {
+			String childPath = relative + "/" + child.getName();
+			if( child.isDirectory() ) {
+				updateDirectory( child, childPath, filter );
+			} else if( filter.accept( child ) ) {
+				update( childPath );
+				updateContent( child );
+			}
+		}
+	}
+
+	private void updateContent(File file) throws IOException {
+		try (InputStream in = new FileInputStream( file )) {
+			int read;
+			while( ( read = in.read( buffer ) ) != -1 ) {
+				digest.update( buffer, 0, read );
+			}
+		}
+	}
+
+	String toHex() {
+		StringBuilder hex = new StringBuilder();
+		for( byte b : digest.digest() ) {
+			hex.append( Character.forDigit( ( b >> 4 ) & 0xf, 16 ) )
+			   .append( Character.forDigit( b & 0xf, 16 ) );
+		}
+		return hex.toString();
+	}
+}
@@ -0,0 +1,33 @@
+package org.scalatest.tools.maven;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the number of forked test JVMs running at the same time across all modules of a build. Maven loads the
+ * plugin's classes once per build and shares them between the modules using the same plugin version, so every
+ * execution of the mojos within a build, including those running in parallel with <code>-T</code>, sees the same
+ * budget.
+ */
+final class ForkBudget {
+
+	// Keyed by the build's execution request, which the sessions of all modules share
+	private static final Map<Object, Semaphore> BUDGETS = new WeakHashMap<Object, Semaphore>();
+
+	private ForkBudget() {
+	}
+
+	/**
+	 * Returns the semaphore of a build, creating it with the given number of permits if it doesn't exist yet. The
+	 * number of permits is fixed by the first execution asking for it.
+	 */
+	static synchronized Semaphore of(Object build, int forks) {
+		Semaphore budget = BUDGETS.get( build );
+		if( budget == null ) {
+			budget = new Semaphore( forks, true );
+			BUDGETS.put( build, budget );
+		}
+		return budget;
+	}
+}
@@ -0,0 +1,204 @@
+package org.scalatest.tools.maven;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+
+/**
+ * Merges the per-suite files written by ScalaTest's JUnit XML reporter into a single <code>testsuites</code> document.
+ * Files are streamed into the aggregate as soon as they are complete, so memory use does not depend on the number or
+ * size of the reports, and the aggregate is usable while the run is still in progress.
+ * <p>
+ * Files in the directories are taken to be written by the current run if they were modified after the aggregator was
+ * created. Files restored from the suite result cache keep an older modification time, so they are passed to
+ * {@link #include(Collection)} instead.
+ * </p>
+ */
+final class JUnitXmlAggregator {
+
+	private static final String TESTSUITES = "testsuites";
+
+	private final File aggregate;
+
+	private final List<File> directories;
+
+	// files older than this belong to a previous run
+	private final long notBefore;
+
+	private final Set<File> appended = new HashSet<File>();
+
+	// files of the run regardless of their modification time
+	private final Set<File> included = new HashSet<File>();
+
+	private final Log log;
+
+	private final XMLInputFactory inputFactory;
+
+	private final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+
+	private final OutputStream out;
+
+	private final XMLEventWriter writer;
+
+	JUnitXmlAggregator(File aggregate, List<File> directories, Log log) throws IOException {
+		this.aggregate = aggregate.getAbsoluteFile();
+		this.directories = directories;
+		this.log = log;
+		// file systems with a coarse timestamp resolution
+		this.notBefore = System.currentTimeMillis() / 1000 * 1000 - 1000;
+
+		inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty( XMLInputFactory.SUPPORT_DTD, Boolean.FALSE );
+		inputFactory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE );
+
+		aggregate.getParentFile()
+		         .mkdirs();
+		out = new BufferedOutputStream( new FileOutputStream( aggregate ) );
+		try {
+			writer = XMLOutputFactory.newInstance()
+			                         .createXMLEventWriter( out, "UTF-8" );
+			writer.add( eventFactory.createStartDocument( "UTF-8", "1.0" ) );
+			writer.add( eventFactory.createStartElement( "", "", TESTSUITES ) );
+			writer.flush();
+		} catch (XMLStreamException e) {
+			out.close();
+			throw new IOException( "Cannot write " + aggregate, e );
+		}
+	}
+
+	/**
+	 * Appends every report file written since the aggregator was created that has not been appended yet. Files that are
+	 * not well-formed, e.g. because a concurrently running fork is still writing them, are left for a later call.
+	 */
+	synchronized void collect() throws IOException {
+		collect( false );
+	}
+
+	/**
+	 * Marks report files as written by the current run, whatever their modification time, and appends them.
+	 */
+	synchronized void include(Collection<File> reports) throws IOException {
+		for( File report : reports ) {
+			included.add( report.getAbsoluteFile() );
+		}
+		collect( false );
+	}
+
+	private void collect(boolean last) throws IOException {
+		for( File directory : directories ) {
+			File[] files = directory.listFiles();
+			if( files == null ) {
+				continue;
+			}
+			for( File file : files ) {
+				File absolute = file.getAbsoluteFile();
+				if( absolute.equals( aggregate ) || appended.contains( absolute ) || !file.isFile()
+				    || !file.getName()
+				            .endsWith( ".xml" )
+				    || file.lastModified() < notBefore && !included.contains( absolute ) ) {
+					continue;
+				}
+				if( isWellFormed( file ) ) {
+					append( file );
+					appended.add( absolute );
+				} else if( last ) {
+					// e.g. truncated by a fork that was killed, appending it would corrupt the aggregate
+					log.warn( "Leaving malformed JUnit XML report " + file + " out of " + aggregate );
+				}
+			}
+		}
+	}
+
+	private boolean isWellFormed(File file) throws IOException {
+		try (InputStream in = new BufferedInputStream( new FileInputStream( file ) )) {
+			XMLEventReader reader = inputFactory.createXMLEventReader( in );
+			try {
+				while( reader.hasNext() ) {
+					reader.nextEvent();
+				}
+				return true;
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			return false;
+		}
+	}
+
+	//
+	// Copies the testsuite element of a report, or the children of its
+	// root if the report itself is a testsuites document.
+	//
+	private void append(File file) throws IOException {
+		try (InputStream in = new BufferedInputStream( new FileInputStream( file ) )) {
+			XMLEventReader reader = inputFactory.createXMLEventReader( in );
+			try {
+				int depth = 0;
+				boolean unwrap = false;
+				while( reader.hasNext() ) {
+					XMLEvent event = reader.nextEvent();
+					if( event.isStartElement() ) {
+						depth++;
+						if( depth == 1 && TESTSUITES.equals( event.asStartElement()
+						                                          .getName()
+						                                          .getLocalPart() ) ) {
+							unwrap = true;
+							continue;
+						}
+					} else if( event.isEndElement() ) {
+						depth--;
+						if( depth == 0 && unwrap ) {
+							continue;
+						}
+					} else if( depth == 0 || ( unwrap && depth == 1 && event.isCharacters() ) ) {
+						// prolog, epilog and whitespace between unwrapped suites
+						continue;
+					}
+					writer.add( event );
+				}
+				writer.flush();
+				out.flush();
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException( "Cannot append " + file + " to " + aggregate, e );
+		}
+	}
+
+	/**
+	 * Appends the remaining report files and completes the aggregate. Files that are still not well-formed, e.g.
+	 * truncated by a fork that was killed, are left out with a warning.
+	 */
+	synchronized void close() throws IOException {
+		try {
+			collect( true );
+			writer.add( eventFactory.createEndElement( "", "", TESTSUITES ) );
+			writer.add( eventFactory.createEndDocument() );
+			writer.close();
+		} catch (XMLStreamException e) {
+			throw new IOException( "Cannot complete " + aggregate, e );
+		} finally {
+			out.close();
+		}
+	}
+}
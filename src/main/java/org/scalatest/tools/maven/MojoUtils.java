@@ -2,8 +2,8 @@ package org.scalatest.tools.maven;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.regex.Pattern;
 import java.io.File;
-import java.io.IOException;
 
 /**
  * Provides internal utilities for the Mojo's operations.
@@ -12,6 +12,9 @@ import java.io.IOException;
  */
 final class MojoUtils {
 
+	// Separates the configuration from the value of a reporter argument
+	static final Pattern WHITESPACE = Pattern.compile( "\\s" );
+
 	private MojoUtils() {
 	}
 
@@ -65,14 +68,14 @@ final class MojoUtils {
 		}
 		if( params.size() > 0 ) {
 			list.add( name );
-			String prefix = "";
-			String a = "";
+			StringBuilder a = new StringBuilder();
 			for( String param : params ) {
-				a += prefix;
-				a += param;
-				prefix = " ";
+				if( a.length() > 0 ) {
+					a.append( ' ' );
+				}
+				a.append( param );
 			}
-			list.add( a );
+			list.add( a.toString() );
 		}
 		return list;
 	}
@@ -89,7 +92,7 @@ final class MojoUtils {
 	static List<String> reporterArg(String name, String commaSeparated, F map) {
 		List<String> r = new ArrayList<String>();
 		for( String arg : splitOnComma( commaSeparated ) ) {
-			String[] split = arg.split( "\\s" );
+			String[] split = WHITESPACE.split( arg );
 			if( split.length == 1 ) {
 				r.add( name );
 				r.add( map.f( split[0] ) );
@@ -106,18 +109,50 @@ final class MojoUtils {
 	// commas where string should not be split. E.g. "a, b, c" returns
 	// list ("a", "b", "c"), but "a\, b, c" returns ("a, b", "c").
 	//
+	// Like String.split, trailing empty elements are dropped, and a string
+	// without any comma yields itself.
+	//
 	static List<String> splitOnComma(String cs) {
 		List<String> args = new ArrayList<String>();
 		if( cs == null ) {
 			return args;
-		} else {
-			String[] split = cs.split( "(?<!\\\\)," );
-			for( String arg : split ) {
-				args.add( arg.trim()
-				             .replaceAll( "\\\\,", "," ) );
+		}
+		StringBuilder arg = new StringBuilder();
+		// elements up to the last non-empty one, as split leaves out empty ones at the end
+		int kept = 0;
+		int start = 0;
+		int length = cs.length();
+		for( int i = 0; i < length; i++ ) {
+			char c = cs.charAt( i );
+			if( c == '\\' && i + 1 < length && cs.charAt( i + 1 ) == ',' ) {
+				arg.append( ',' );
+				i++;
+			} else if( c == ',' ) {
+				args.add( arg.toString()
+				             .trim() );
+				if( i > start ) {
+					kept = args.size();
+				}
+				arg.setLength( 0 );
+				start = i + 1;
+			} else {
+				arg.append( c );
 			}
+		}
+		if( args.isEmpty() ) {
+			args.add( arg.toString()
+			             .trim() );
 			return args;
 		}
+		if( length > start ) {
+			args.add( arg.toString()
+			             .trim() );
+			kept = args.size();
+		}
+		while( args.size() > kept ) {
+			args.remove( args.size() - 1 );
+		}
+		return args;
 	}
 
 	static String[] concat(List<String>... lists) {
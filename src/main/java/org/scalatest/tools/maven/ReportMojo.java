@@ -0,0 +1,367 @@
+package org.scalatest.tools.maven;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.reporting.MavenReport;
+import org.apache.maven.reporting.MavenReportException;
+import org.codehaus.doxia.sink.Sink;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * Renders the results of the <code>test</code> goal, as found in its <code>reportsDirectory</code>, as a site report.
+ * The JUnit XML and file reporter output is stream-parsed, so even runs with hundreds of thousands of tests are
+ * rendered with constant memory. The report consists of a summary with the slowest suites and a paginated list of all
+ * suites.
+ *
+ * @goal report
+ * @phase site
+ */
+public class ReportMojo extends AbstractMojo implements MavenReport {
+
+	/**
+	 * Directory containing the output of the ScalaTest reporters, usually the <code>reportsDirectory</code> of the
+	 * <code>test</code> goal.
+	 *
+	 * @parameter default-value="${project.build.directory}/scalatest-reports" property="scalatest.reportsDirectory"
+	 * @required
+	 */
+	File reportsDirectory;
+
+	/**
+	 * Directory the report is written to.
+	 *
+	 * @parameter default-value="${project.reporting.outputDirectory}"
+	 * @required
+	 */
+	File reportOutputDirectory;
+
+	/**
+	 * Number of suites listed on each page of the report.
+	 *
+	 * @parameter property="scalatest.suitesPerPage" default-value="500"
+	 */
+	int suitesPerPage = 500;
+
+	/**
+	 * Number of suites listed in the table of slowest suites.
+	 *
+	 * @parameter property="scalatest.slowestSuites" default-value="20"
+	 */
+	int slowestSuites = 20;
+
+	/**
+	 * Name of the file, relative to <code>reportsDirectory</code>, into which the <code>test</code> goal merges the JUnit
+	 * XML reports, see its <code>junitxmlAggregate</code>. The file is skipped, as its suites are also found in their
+	 * own files and would otherwise be counted twice.
+	 *
+	 * @parameter property="junitxmlAggregate"
+	 */
+	String junitxmlAggregate;
+
+	private static final String OUTPUT_NAME = "scalatest-report";
+
+	// Generates the report without a site, e.g. when the goal is run from the command line
+	public void execute() throws MojoExecutionException {
+		if( !canGenerateReport() ) {
+			getLog().info( "No ScalaTest reports found in " + reportsDirectory );
+			return;
+		}
+		try {
+			ReportSummary summary = writeSuitePages();
+			try (Writer out = htmlWriter( new File( reportOutputDirectory, getOutputName() + ".html" ) )) {
+				ResourceBundle bundle = bundle( Locale.getDefault() );
+				String title = bundle.getString( "reporter.mojo.outputTitle" );
+				out.write( "<html><head><title>" + escape( title ) + "</title></head><body><h1>" + escape( title ) + "</h1>\n" );
+				out.write( "<table><tr><th>Suites</th><th>Tests</th><th>Failures</th><th>Errors</th><th>Skipped</th><th>Time (s)</th></tr>\n" );
+				out.write( row( String.valueOf( summary.suites ),
+				                String.valueOf( summary.tests ),
+				                String.valueOf( summary.failures ),
+				                String.valueOf( summary.errors ),
+				                String.valueOf( summary.skipped ),
+				                seconds( summary.time ) ) );
+				out.write( "</table>\n" );
+				for( String runSummary : summary.runSummaries ) {
+					out.write( "<p>" + escape( runSummary ) + "</p>\n" );
+				}
+				out.write( "<h2>Slowest suites</h2>\n<table><tr><th>Suite</th><th>Tests</th><th>Failures</th><th>Errors</th><th>Time (s)</th></tr>\n" );
+				for( ReportSummary.SuiteResult suite : summary.slowest() ) {
+					out.write( row( suite.name,
+					                String.valueOf( suite.tests ),
+					                String.valueOf( suite.failures ),
+					                String.valueOf( suite.errors ),
+					                seconds( suite.time ) ) );
+				}
+				out.write( "</table>\n<h2>All suites</h2>\n<ul>\n" );
+				for( int page = 1; page <= pages( summary ); page++ ) {
+					out.write( "<li><a href=\"" + pageName( page ) + "\">Page " + page + "</a></li>\n" );
+				}
+				out.write( "</ul>\n</body></html>\n" );
+			}
+		} catch (IOException e) {
+			throw new MojoExecutionException( "Unable to write ScalaTest report.", e );
+		}
+	}
+
+	public void generate(Sink sink, Locale locale) throws MavenReportException {
+		ReportSummary summary;
+		try {
+			summary = writeSuitePages();
+		} catch (IOException e) {
+			throw new MavenReportException( "Unable to write ScalaTest report: " + e.getMessage() );
+		}
+		String title = bundle( locale ).getString( "reporter.mojo.outputTitle" );
+
+		sink.head();
+		sink.title();
+		sink.text( title );
+		sink.title_();
+		sink.head_();
+		sink.body();
+
+		sink.section1();
+		sink.sectionTitle1();
+		sink.text( title );
+		sink.sectionTitle1_();
+		sink.table();
+		tableHeader( sink, "Suites", "Tests", "Failures", "Errors", "Skipped", "Time (s)" );
+		tableRow( sink,
+		          String.valueOf( summary.suites ),
+		          String.valueOf( summary.tests ),
+		          String.valueOf( summary.failures ),
+		          String.valueOf( summary.errors ),
+		          String.valueOf( summary.skipped ),
+		          seconds( summary.time ) );
+		sink.table_();
+		for( String runSummary : summary.runSummaries ) {
+			sink.paragraph();
+			sink.text( runSummary );
+			sink.paragraph_();
+		}
+		sink.section1_();
+
+		sink.section1();
+		sink.sectionTitle1();
+		sink.text( "Slowest suites" );
+		sink.sectionTitle1_();
+		sink.table();
+		tableHeader( sink, "Suite", "Tests", "Failures", "Errors", "Time (s)" );
+		for( ReportSummary.SuiteResult suite : summary.slowest() ) {
+			tableRow( sink,
+			          suite.name,
+			          String.valueOf( suite.tests ),
+			          String.valueOf( suite.failures ),
+			          String.valueOf( suite.errors ),
+			          seconds( suite.time ) );
+		}
+		sink.table_();
+		sink.section1_();
+
+		sink.section1();
+		sink.sectionTitle1();
+		sink.text( "All suites" );
+		sink.sectionTitle1_();
+		sink.list();
+		for( int page = 1; page <= pages( summary ); page++ ) {
+			sink.listItem();
+			sink.link( pageName( page ) );
+			sink.text( "Page " + page );
+			sink.link_();
+			sink.listItem_();
+		}
+		sink.list_();
+		sink.section1_();
+
+		sink.body_();
+		sink.flush();
+		sink.close();
+	}
+
+	private static void tableHeader(Sink sink, String... headers) {
+		sink.tableRow();
+		for( String header : headers ) {
+			sink.tableHeaderCell();
+			sink.text( header );
+			sink.tableHeaderCell_();
+		}
+		sink.tableRow_();
+	}
+
+	private static void tableRow(Sink sink, String... cells) {
+		sink.tableRow();
+		for( String cell : cells ) {
+			sink.tableCell();
+			sink.text( cell );
+			sink.tableCell_();
+		}
+		sink.tableRow_();
+	}
+
+	//
+	// Reads the reports and writes every suite to the pages as it is read,
+	// so that no more than the summary is kept in memory.
+	//
+	private ReportSummary writeSuitePages() throws IOException {
+		ReportSummary summary = new ReportSummary( slowestSuites, junitxmlAggregate == null ? null : new File( reportsDirectory, junitxmlAggregate ) );
+		SuitePages pages = new SuitePages();
+		try {
+			summary.read( reportsDirectory, pages );
+		} finally {
+			pages.close();
+		}
+		return summary;
+	}
+
+	private final class SuitePages implements ReportSummary.Listener {
+
+		private Writer out;
+
+		private int page;
+
+		private int rows;
+
+		public void suite(ReportSummary.SuiteResult suite) throws IOException {
+			if( out == null || rows == suitesPerPage ) {
+				nextPage();
+			}
+			out.write( row( suite.name,
+			                String.valueOf( suite.tests ),
+			                String.valueOf( suite.failures ),
+			                String.valueOf( suite.errors ),
+			                String.valueOf( suite.skipped ),
+			                seconds( suite.time ) ) );
+			rows++;
+		}
+
+		private void nextPage() throws IOException {
+			if( out != null ) {
+				endPage( true );
+			}
+			page++;
+			rows = 0;
+			out = htmlWriter( new File( reportOutputDirectory, pageName( page ) ) );
+			out.write( "<html><head><title>ScalaTest suites, page " + page + "</title></head><body>\n" );
+			out.write( "<p><a href=\"" + getOutputName() + ".html\">Summary</a>" );
+			if( page > 1 ) {
+				out.write( " | <a href=\"" + pageName( page - 1 ) + "\">Previous</a>" );
+			}
+			out.write( "</p>\n<table><tr><th>Suite</th><th>Tests</th><th>Failures</th><th>Errors</th><th>Skipped</th><th>Time (s)</th></tr>\n" );
+		}
+
+		private void endPage(boolean hasNext) throws IOException {
+			out.write( "</table>\n" );
+			if( hasNext ) {
+				out.write( "<p><a href=\"" + pageName( page + 1 ) + "\">Next</a></p>\n" );
+			}
+			out.write( "</body></html>\n" );
+			out.close();
+			out = null;
+		}
+
+		void close() throws IOException {
+			if( out != null ) {
+				endPage( false );
+			}
+		}
+	}
+
+	private int pages(ReportSummary summary) {
+		return ( summary.suites + suitesPerPage - 1 ) / suitesPerPage;
+	}
+
+	private String pageName(int page) {
+		return getOutputName() + "-suites-" + page + ".html";
+	}
+
+	private static Writer htmlWriter(File file) throws IOException {
+		file.getParentFile()
+		    .mkdirs();
+		return new BufferedWriter( new OutputStreamWriter( new FileOutputStream( file ), StandardCharsets.UTF_8 ) );
+	}
+
+	private static String row(String... cells) {
+		StringBuilder row = new StringBuilder( "<tr>" );
+		for( String cell : cells ) {
+			row.append( "<td>" )
+			   .append( escape( cell ) )
+			   .append( "</td>" );
+		}
+		return row.append( "</tr>\n" )
+		          .toString();
+	}
+
+	private static String seconds(double time) {
+		return String.format( Locale.ROOT, "%.3f", time );
+	}
+
+	private static String escape(String s) {
+		if( s == null ) {
+			return "";
+		}
+		StringBuilder escaped = new StringBuilder( s.length() );
+		for( int i = 0; i < s.length(); i++ ) {
+			char c = s.charAt( i );
+			switch( c ) {
+				case '<':
+					escaped.append( "&lt;" );
+					break;
+				case '>':
+					escaped.append( "&gt;" );
+					break;
+				case '&':
+					escaped.append( "&amp;" );
+					break;
+				case '"':
+					escaped.append( "&quot;" );
+					break;
+				default:
+					escaped.append( c );
+			}
+		}
+		return escaped.toString();
+	}
+
+	private ResourceBundle bundle(Locale locale) {
+		return ResourceBundle.getBundle( "mojoResources", locale, getClass().getClassLoader() );
+	}
+
+	public String getOutputName() {
+		return OUTPUT_NAME;
+	}
+
+	public String getCategoryName() {
+		return CATEGORY_PROJECT_REPORTS;
+	}
+
+	public String getName(Locale locale) {
+		return bundle( locale ).getString( "reporter.mojo.name" );
+	}
+
+	public String getDescription(Locale locale) {
+		return bundle( locale ).getString( "reporter.mojo.description" );
+	}
+
+	public void setReportOutputDirectory(File outputDirectory) {
+		reportOutputDirectory = outputDirectory;
+	}
+
+	public File getReportOutputDirectory() {
+		return reportOutputDirectory;
+	}
+
+	public boolean isExternalReport() {
+		return false;
+	}
+
+	public boolean canGenerateReport() {
+		return reportsDirectory != null && reportsDirectory.isDirectory();
+	}
+}
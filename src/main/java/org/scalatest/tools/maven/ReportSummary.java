@@ -0,0 +1,208 @@
+package org.scalatest.tools.maven;
+
+import java.io.BufferedReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Totals of the reports found in a reports directory. The JUnit XML files are stream-parsed and only a fixed number of
+ * suites is retained (the slowest ones), so memory use does not depend on the number of tests or suites. Every suite
+ * read is handed to a {@link Listener}, which may write it out right away.
+ * <p>
+ * A suite is counted for every report it is found in. The aggregate of the JUnit XML reports, which holds the suites
+ * of the other files once more, is therefore skipped.
+ * </p>
+ */
+final class ReportSummary {
+
+	/**
+	 * Result of a single suite, as found in a <code>testsuite</code> element.
+	 */
+	static final class SuiteResult {
+
+		final String name;
+
+		final int tests;
+
+		final int failures;
+
+		final int errors;
+
+		final int skipped;
+
+		// seconds
+		final double time;
+
+		SuiteResult(String name, int tests, int failures, int errors, int skipped, double time) {
+			this.name = name;
+			this.tests = tests;
+			this.failures = failures;
+			this.errors = errors;
+			this.skipped = skipped;
+			this.time = time;
+		}
+	}
+
+	interface Listener {
+
+		void suite(SuiteResult suite) throws IOException;
+	}
+
+	private static final Comparator<SuiteResult> BY_TIME = new Comparator<SuiteResult>() {
+
+		public int compare(SuiteResult a, SuiteResult b) {
+			return Double.compare( a.time, b.time );
+		}
+	};
+
+	int suites;
+
+	int tests;
+
+	int failures;
+
+	int errors;
+
+	int skipped;
+
+	double time;
+
+	// summary lines of the file reporters, e.g. "Tests: succeeded 5, failed 0, ..."
+	final List<String> runSummaries = new ArrayList<String>();
+
+	private final int slowestCount;
+
+	// min-heap, so the fastest of the retained suites is evicted first
+	private final PriorityQueue<SuiteResult> slowest = new PriorityQueue<SuiteResult>( 11, BY_TIME );
+
+	// the aggregate of the JUnit XML reports, or null
+	private final File aggregate;
+
+	private final XMLInputFactory inputFactory;
+
+	ReportSummary(int slowestCount, File aggregate) {
+		this.slowestCount = slowestCount;
+		this.aggregate = aggregate == null ? null : aggregate.getAbsoluteFile();
+		inputFactory = XMLInputFactory.newInstance();
+		inputFactory.setProperty( XMLInputFactory.SUPPORT_DTD, Boolean.FALSE );
+		inputFactory.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE );
+	}
+
+	/**
+	 * Reads all JUnit XML and file reporter output below a directory, in a stable order.
+	 */
+	void read(File directory, Listener listener) throws IOException {
+		File[] files = directory.listFiles();
+		if( files == null ) {
+			return;
+		}
+		Arrays.sort( files );
+		for( File file : files ) {
+			if( file.isDirectory() ) {
+				read( file, listener );
+			} else if( file.getAbsoluteFile()
+			               .equals( aggregate ) ) {
+				continue;
+			} else if( file.getName()
+			               .endsWith( ".xml" ) ) {
+				readJUnitXml( file, listener );
+			} else if( file.getName()
+			               .endsWith( ".txt" ) ) {
+				readFileReport( file );
+			}
+		}
+	}
+
+	private void readJUnitXml(File file, Listener listener) throws IOException {
+		try (InputStream in = new BufferedInputStream( new FileInputStream( file ) )) {
+			XMLStreamReader reader = inputFactory.createXMLStreamReader( in );
+			try {
+				while( reader.hasNext() ) {
+					if( reader.next() == XMLStreamConstants.START_ELEMENT && "testsuite".equals( reader.getLocalName() ) ) {
+						SuiteResult suite = new SuiteResult( reader.getAttributeValue( null, "name" ),
+						                                     intAttribute( reader, "tests" ),
+						                                     intAttribute( reader, "failures" ),
+						                                     intAttribute( reader, "errors" ),
+						                                     intAttribute( reader, "skipped" ),
+						                                     doubleAttribute( reader, "time" ) );
+						add( suite );
+						listener.suite( suite );
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			// not a JUnit XML report, or an incomplete one
+		}
+	}
+
+	private static int intAttribute(XMLStreamReader reader, String name) {
+		String value = reader.getAttributeValue( null, name );
+		try {
+			return value == null ? 0 : Integer.parseInt( value.trim() );
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private static double doubleAttribute(XMLStreamReader reader, String name) {
+		String value = reader.getAttributeValue( null, name );
+		try {
+			return value == null ? 0 : Double.parseDouble( value.trim() );
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	private void add(SuiteResult suite) {
+		suites++;
+		tests += suite.tests;
+		failures += suite.failures;
+		errors += suite.errors;
+		skipped += suite.skipped;
+		time += suite.time;
+		slowest.add( suite );
+		if( slowest.size() > slowestCount ) {
+			slowest.poll();
+		}
+	}
+
+	private void readFileReport(File file) throws IOException {
+		try (BufferedReader reader = Files.newBufferedReader( file.toPath(), StandardCharsets.UTF_8 )) {
+			String line;
+			while( ( line = reader.readLine() ) != null ) {
+				String trimmed = line.trim();
+				if( trimmed.startsWith( "Run completed in" ) || trimmed.startsWith( "Total number of tests run:" )
+				    || trimmed.startsWith( "Suites: completed" ) || trimmed.startsWith( "Tests: succeeded" ) ) {
+					runSummaries.add( file.getName() + ": " + trimmed );
+				}
+			}
+		}
+	}
+
+	/**
+	 * The slowest suites, slowest first.
+	 */
+	List<SuiteResult> slowest() {
+		List<SuiteResult> list = new ArrayList<SuiteResult>( slowest );
+		Collections.sort( list, Collections.reverseOrder( BY_TIME ) );
+		return list;
+	}
+}
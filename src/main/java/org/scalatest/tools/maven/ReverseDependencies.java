@@ -0,0 +1,85 @@
+package org.scalatest.tools.maven;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The references between the classes in the class directories of a {@link ClassDependencies}, reversed, to tell which
+ * classes are affected by a change to a class. Built once from all class files, then updated for the class files that
+ * changed, so looking up the classes affected by a change does not read the class files of the unchanged classes.
+ */
+final class ReverseDependencies {
+
+	private final ClassDependencies dependencies;
+
+	// The classes each class references directly, as of the last update
+	private final Map<String, Set<String>> references = new HashMap<String, Set<String>>();
+
+	// The classes directly referencing each class
+	private final Map<String, Set<String>> referencedBy = new HashMap<String, Set<String>>();
+
+	ReverseDependencies(ClassDependencies dependencies) {
+		this.dependencies = dependencies;
+	}
+
+	/**
+	 * Reads the references of a class from its class file, or forgets them if the class file is gone.
+	 */
+	void update(String cls) throws IOException {
+		Set<String> previous = references.remove( cls );
+		if( previous != null ) {
+			for( String referenced : previous ) {
+				Set<String> referencing = referencedBy.get( referenced );
+				referencing.remove( cls );
+				if( referencing.isEmpty() ) {
+					referencedBy.remove( referenced );
+				}
+			}
+		}
+		ClassFile classFile = dependencies.read( cls );
+		if( classFile == null ) {
+			return;
+		}
+		Set<String> current = new HashSet<String>( classFile.referencedClasses );
+		current.remove( cls );
+		references.put( cls, current );
+		for( String referenced : current ) {
+			Set<String> referencing = referencedBy.get( referenced );
+			if( referencing == null ) {
+				referencing = new HashSet<String>();
+				referencedBy.put( referenced, referencing );
+			}
+			referencing.add( cls );
+		}
+	}
+
+	/**
+	 * Returns the given classes and all classes depending on them, directly or indirectly, sorted by name. A class
+	 * depends on its nested classes, as in {@link ClassDependencies#transitive(String)}.
+	 */
+	Set<String> dependents(Collection<String> classes) {
+		Set<String> found = new TreeSet<String>();
+		Deque<String> pending = new ArrayDeque<String>( classes );
+		while( !pending.isEmpty() ) {
+			String next = pending.poll();
+			if( !found.add( next ) ) {
+				continue;
+			}
+			int nested = next.indexOf( '$' );
+			if( nested > 0 ) {
+				pending.add( next.substring( 0, nested ) );
+			}
+			Set<String> referencing = referencedBy.get( next );
+			pending.addAll( referencing == null ? Collections.<String>emptySet() : referencing );
+		}
+		return found;
+	}
+}
@@ -0,0 +1,101 @@
+package org.scalatest.tools.maven;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Order to run suites in, as given by the <code>runOrder</code> parameter: "alphabetical", "random" or
+ * "random:&lt;seed&gt;", "longest-first" or "failed-first". The latter two are based on the statistics recorded by
+ * previous runs.
+ */
+final class RunOrder {
+
+	private static final String ALPHABETICAL = "alphabetical";
+
+	private static final String RANDOM = "random";
+
+	private static final String LONGEST_FIRST = "longest-first";
+
+	private static final String FAILED_FIRST = "failed-first";
+
+	private final String strategy;
+
+	private final long seed;
+
+	private RunOrder(String strategy, long seed) {
+		this.strategy = strategy;
+		this.seed = seed;
+	}
+
+	/**
+	 * Parses a run order. A random order without a seed gets a new seed.
+	 *
+	 * @throws IllegalArgumentException if the run order is unknown
+	 */
+	static RunOrder parse(String runOrder) {
+		String trimmed = runOrder.trim();
+		if( trimmed.equals( RANDOM ) ) {
+			return new RunOrder( RANDOM, new Random().nextLong() );
+		}
+		if( trimmed.startsWith( RANDOM + ":" ) ) {
+			try {
+				return new RunOrder( RANDOM,
+				                     Long.parseLong( trimmed.substring( RANDOM.length() + 1 )
+				                                            .trim() ) );
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException( "Invalid seed in runOrder: \"" + runOrder + "\"" );
+			}
+		}
+		if( trimmed.equals( ALPHABETICAL ) || trimmed.equals( LONGEST_FIRST ) || trimmed.equals( FAILED_FIRST ) ) {
+			return new RunOrder( trimmed, 0 );
+		}
+		throw new IllegalArgumentException( "Invalid runOrder: \"" + runOrder + "\"; Expected one of alphabetical, random, random:<seed>, longest-first or failed-first." );
+	}
+
+	/**
+	 * Whether the order is based on recorded statistics.
+	 */
+	boolean usesStatistics() {
+		return strategy.equals( LONGEST_FIRST ) || strategy.equals( FAILED_FIRST );
+	}
+
+	/**
+	 * Returns the suites in this order. Ties, as well as suites without recorded statistics, are ordered
+	 * alphabetically; suites without a recorded duration count as the longest.
+	 */
+	List<String> sort(List<String> suites, final SuiteStatistics statistics) {
+		List<String> sorted = new ArrayList<String>( suites );
+		Collections.sort( sorted );
+		if( strategy.equals( RANDOM ) ) {
+			Collections.shuffle( sorted, new Random( seed ) );
+		} else if( strategy.equals( LONGEST_FIRST ) ) {
+			Collections.sort( sorted, new Comparator<String>() {
+
+				public int compare(String a, String b) {
+					return Long.compare( duration( b ), duration( a ) );
+				}
+
+				private long duration(String suite) {
+					Long duration = statistics.duration( suite );
+					return duration == null ? Long.MAX_VALUE : duration;
+				}
+			} );
+		} else if( strategy.equals( FAILED_FIRST ) ) {
+			Collections.sort( sorted, new Comparator<String>() {
+
+				public int compare(String a, String b) {
+					return Boolean.compare( statistics.failed( b ), statistics.failed( a ) );
+				}
+			} );
+		}
+		return sorted;
+	}
+
+	@Override
+	public String toString() {
+		return strategy.equals( RANDOM ) ? RANDOM + ":" + seed : strategy;
+	}
+}
@@ -0,0 +1,47 @@
+package org.scalatest.tools.maven;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Main class of JVMs forked ahead of time, while the previous suite still runs. It loads and initializes ScalaTest's
+ * Runner, then waits for a line on stdin: on {@link #RUN} it invokes the main method of the class named by the first
+ * argument with the remaining arguments, on anything else, including the end of stdin, it exits without running
+ * anything.
+ * <p>
+ * This class runs in the forked process and must not depend on Maven.
+ * </p>
+ */
+public final class StandbyRunner {
+
+	static final String RUN = "run";
+
+	static final String EXIT = "exit";
+
+	private StandbyRunner() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Class.forName( "org.scalatest.tools.Runner$" );
+		Method main = Class.forName( args[0] )
+		                   .getMethod( "main", String[].class );
+
+		BufferedReader in = new BufferedReader( new InputStreamReader( System.in, StandardCharsets.UTF_8 ) );
+		if( !RUN.equals( in.readLine() ) ) {
+			return;
+		}
+		try {
+			main.invoke( null, new Object[] { Arrays.copyOfRange( args, 1, args.length ) } );
+		} catch (InvocationTargetException e) {
+			Throwable target = e.getTargetException();
+			if( target instanceof Error ) {
+				throw (Error) target;
+			}
+			throw (Exception) target;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package org.scalatest.tools.maven;
+
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Main class of the forked process telling suites from other classes. The first argument is a file holding one class
+ * name per line, escaped with {@link WatchRunner#escape(String)}, the second the file to write the names of the
+ * classes that are suites to, in the same format. Classes are loaded without being initialized, from the classpath of
+ * the forked process including its jars, so suites extending a base class from a dependency are recognized.
+ * <p>
+ * A class counts as a suite if the Runner can instantiate it: it is public and concrete, extends
+ * <code>org.scalatest.Suite</code> and has a public no-arg constructor or is annotated with
+ * <code>org.scalatest.WrapWith</code>.
+ * </p>
+ * <p>
+ * This class runs in the forked process and must not depend on Maven.
+ * </p>
+ */
+public final class SuiteDetector {
+
+	private SuiteDetector() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		List<String> classes = ArgumentFileRunner.read( new File( args[0] ) );
+		ArgumentFileRunner.write( new File( args[1] ), suites( SuiteDetector.class.getClassLoader(), classes ) );
+	}
+
+	/**
+	 * Returns the classes that are suites, loading them from the given class loader, which must also provide ScalaTest.
+	 */
+	static List<String> suites(ClassLoader loader, List<String> classes) throws ClassNotFoundException {
+		Class<?> suite = Class.forName( "org.scalatest.Suite", false, loader );
+		Class<? extends Annotation> wrapWith = Class.forName( "org.scalatest.WrapWith", false, loader )
+		                                            .asSubclass( Annotation.class );
+
+		List<String> suites = new ArrayList<String>();
+		for( String name : classes ) {
+			try {
+				if( isSuite( Class.forName( name, false, loader ), suite, wrapWith ) ) {
+					suites.add( name );
+				}
+			} catch (ClassNotFoundException | LinkageError e) {
+				// not loadable, so not runnable either
+			}
+		}
+		return suites;
+	}
+
+	private static boolean isSuite(Class<?> cls, Class<?> suite, Class<? extends Annotation> wrapWith) {
+		int modifiers = cls.getModifiers();
+		if( cls.isInterface() || Modifier.isAbstract( modifiers ) || !Modifier.isPublic( modifiers ) || !suite.isAssignableFrom( cls ) ) {
+			return false;
+		}
+		if( cls.isAnnotationPresent( wrapWith ) ) {
+			return true;
+		}
+		try {
+			return Modifier.isPublic( cls.getConstructor()
+			                             .getModifiers() );
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+}
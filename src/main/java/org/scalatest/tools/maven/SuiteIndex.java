@@ -0,0 +1,460 @@
+package org.scalatest.tools.maven;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * On-disk index of the top-level classes in a test output directory, memory-mapped so that it can be queried without
+ * holding the discovery result on the Maven heap. Each class has a fixed-size record with its name, its class-level
+ * annotations (i.e. tags), and the size, modification time and a hash of its class file. Names and annotations are
+ * interned in a sorted string table; records are sorted by name, so both can be looked up by binary search. Whether a
+ * class is a suite is not recorded, as that depends on supertypes outside the test output directory.
+ * <p>
+ * The file starts with a header of {@link #HEADER_SIZE} bytes, followed by the records of {@link #RECORD_SIZE} bytes
+ * each, the annotation string ids of all records, the offsets of the strings and finally the strings in UTF-8. All
+ * numbers are big-endian.
+ * </p>
+ */
+final class SuiteIndex {
+
+	private static final int MAGIC = 0x53434958;
+
+	private static final int VERSION = 2;
+
+	private static final int HEADER_SIZE = 24;
+
+	private static final int RECORD_SIZE = 36;
+
+	// Record fields
+	private static final int NAME = 0;
+
+	private static final int TAGS_START = 4;
+
+	private static final int TAGS_COUNT = 8;
+
+	private static final int LAST_MODIFIED = 12;
+
+	private static final int LENGTH = 20;
+
+	private static final int HASH = 28;
+
+	private final MappedByteBuffer buffer;
+
+	private final int size;
+
+	private final int tagsOffset;
+
+	private final int stringCount;
+
+	private final int stringOffsetsOffset;
+
+	private final int stringsOffset;
+
+	private SuiteIndex(MappedByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if( buffer.capacity() < HEADER_SIZE || buffer.getInt( 0 ) != MAGIC || buffer.getInt( 4 ) != VERSION ) {
+			throw new IOException( "Not a suite index" );
+		}
+		size = buffer.getInt( 8 );
+		int tagCount = buffer.getInt( 12 );
+		stringCount = buffer.getInt( 16 );
+		long stringBytes = buffer.getInt( 20 );
+		long expectedSize = HEADER_SIZE + (long) size * RECORD_SIZE + tagCount * 4L + ( stringCount + 1L ) * 4 + stringBytes;
+		if( size < 0 || tagCount < 0 || stringCount < 0 || stringBytes < 0 || expectedSize != buffer.capacity() ) {
+			throw new IOException( "Corrupt suite index" );
+		}
+		tagsOffset = HEADER_SIZE + size * RECORD_SIZE;
+		stringOffsetsOffset = tagsOffset + tagCount * 4;
+		stringsOffset = stringOffsetsOffset + ( stringCount + 1 ) * 4;
+	}
+
+	/**
+	 * Maps an existing index, or returns null if the file doesn't exist or is not a valid index.
+	 */
+	static SuiteIndex open(File file) {
+		if( !file.isFile() ) {
+			return null;
+		}
+		try (RandomAccessFile raf = new RandomAccessFile( file, "r" );
+		     FileChannel channel = raf.getChannel()) {
+			return new SuiteIndex( channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() ) );
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Number of classes in the index.
+	 */
+	int size() {
+		return size;
+	}
+
+	String name(int i) {
+		return string( record( i, NAME ) );
+	}
+
+	long hash(int i) {
+		return buffer.getLong( HEADER_SIZE + i * RECORD_SIZE + HASH );
+	}
+
+	List<String> tags(int i) {
+		int start = record( i, TAGS_START );
+		int count = record( i, TAGS_COUNT );
+		List<String> tags = new ArrayList<String>( count );
+		for( int t = start; t < start + count; t++ ) {
+			tags.add( string( buffer.getInt( tagsOffset + t * 4 ) ) );
+		}
+		return tags;
+	}
+
+	/**
+	 * Resolves annotation names to their string ids for {@link #hasAnyTag(int, int[])}. Names that don't occur in the
+	 * index are left out.
+	 */
+	int[] tagIds(Collection<String> tags) {
+		int[] ids = new int[tags.size()];
+		int n = 0;
+		for( String tag : tags ) {
+			int id = stringId( tag );
+			if( id >= 0 ) {
+				ids[n++] = id;
+			}
+		}
+		return Arrays.copyOf( ids, n );
+	}
+
+	/**
+	 * Whether the class carries any of the annotations with the given string ids. Compares ids only, so that no
+	 * strings are decoded per class.
+	 */
+	boolean hasAnyTag(int i, int[] tagIds) {
+		int start = record( i, TAGS_START );
+		int count = record( i, TAGS_COUNT );
+		for( int t = start; t < start + count; t++ ) {
+			int id = buffer.getInt( tagsOffset + t * 4 );
+			for( int tagId : tagIds ) {
+				if( id == tagId ) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the position of a class in the index, or -1 if it isn't indexed.
+	 */
+	int find(String name) {
+		int id = stringId( name );
+		if( id < 0 ) {
+			return -1;
+		}
+		// string ids follow the sort order of the strings, and so do the records
+		int low = 0;
+		int high = size - 1;
+		while( low <= high ) {
+			int mid = ( low + high ) >>> 1;
+			int midId = record( mid, NAME );
+			if( midId < id ) {
+				low = mid + 1;
+			} else if( midId > id ) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the names of the classes, sorted, that belong to the given shard, see {@link #inShard(String, int, int)}.
+	 */
+	List<String> classes(int shard, int shardCount) {
+		List<String> classes = new ArrayList<String>();
+		for( int i = 0; i < size; i++ ) {
+			String name = name( i );
+			if( inShard( name, shard, shardCount ) ) {
+				classes.add( name );
+			}
+		}
+		return classes;
+	}
+
+	/**
+	 * Whether a suite belongs to a shard, numbered from 1 to shardCount. Suites are assigned by the hash code of their
+	 * name, which is the same on every JVM.
+	 */
+	static boolean inShard(String suite, int shard, int shardCount) {
+		return ( suite.hashCode() & Integer.MAX_VALUE ) % shardCount == shard - 1;
+	}
+
+	private int record(int i, int field) {
+		return buffer.getInt( HEADER_SIZE + i * RECORD_SIZE + field );
+	}
+
+	private String string(int id) {
+		int start = buffer.getInt( stringOffsetsOffset + id * 4 );
+		int end = buffer.getInt( stringOffsetsOffset + ( id + 1 ) * 4 );
+		byte[] bytes = new byte[end - start];
+		ByteBuffer view = buffer.duplicate();
+		view.position( stringsOffset + start );
+		view.get( bytes );
+		return new String( bytes, StandardCharsets.UTF_8 );
+	}
+
+	private int stringId(String s) {
+		int low = 0;
+		int high = stringCount - 1;
+		while( low <= high ) {
+			int mid = ( low + high ) >>> 1;
+			int cmp = string( mid ).compareTo( s );
+			if( cmp < 0 ) {
+				low = mid + 1;
+			} else if( cmp > 0 ) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	private static final class Entry {
+
+		long lastModified;
+
+		long length;
+
+		long hash;
+
+		Collection<String> tags;
+
+		// the position of the name in the string table, set when writing
+		int nameId;
+	}
+
+	//
+	// Indexes the top-level classes in a test output directory. If every
+	// class file has the same size and modification time as in the
+	// previous index, that index is returned as it is. Otherwise a new
+	// index is written, for which only the changed class files are read.
+	//
+	static SuiteIndex update(File file, File testOutputDirectory) throws IOException {
+		SuiteIndex previous = open( file );
+		if( previous != null && previous.isUpToDate( testOutputDirectory ) ) {
+			return previous;
+		}
+
+		Map<String, Entry> entries = new TreeMap<String, Entry>();
+		collectClassFiles( testOutputDirectory, "", previous, entries );
+
+		file.getAbsoluteFile()
+		    .getParentFile()
+		    .mkdirs();
+		File temp = new File( file.getPath() + ".tmp" );
+		write( temp, entries );
+		Files.move( temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING );
+		SuiteIndex index = open( file );
+		if( index == null ) {
+			throw new IOException( "Unable to read suite index " + file );
+		}
+		return index;
+	}
+
+	// Whether the index holds exactly the top-level classes of a directory, with unchanged class files
+	private boolean isUpToDate(File testOutputDirectory) {
+		int[] found = { 0 };
+		return isUpToDate( testOutputDirectory, "", found ) && found[0] == size;
+	}
+
+	private boolean isUpToDate(File dir, String packagePrefix, int[] found) {
+		File[] files = dir.listFiles();
+		if( files == null ) {
+			return true;
+		}
+		for( File f : files ) {
+			String name = f.getName();
+			if( f.isDirectory() ) {
+				if( !isUpToDate( f, packagePrefix + name + ".", found ) ) {
+					return false;
+				}
+			} else if( isTopLevelClassFile( name ) ) {
+				int i = find( packagePrefix + name.substring( 0, name.length() - ".class".length() ) );
+				if( i < 0 || !isUnchanged( i, f ) ) {
+					return false;
+				}
+				found[0]++;
+			}
+		}
+		return true;
+	}
+
+	private boolean isUnchanged(int i, File classFile) {
+		return buffer.getLong( HEADER_SIZE + i * RECORD_SIZE + LAST_MODIFIED ) == classFile.lastModified()
+		       && buffer.getLong( HEADER_SIZE + i * RECORD_SIZE + LENGTH ) == classFile.length();
+	}
+
+	private static boolean isTopLevelClassFile(String name) {
+		return name.endsWith( ".class" ) && name.indexOf( '$' ) < 0;
+	}
+
+	// Collects the top-level classes by class name, taking unchanged ones from the previous index
+	private static void collectClassFiles(File dir, String packagePrefix, SuiteIndex previous, Map<String, Entry> entries) throws IOException {
+		File[] files = dir.listFiles();
+		if( files == null ) {
+			return;
+		}
+		for( File f : files ) {
+			String name = f.getName();
+			if( f.isDirectory() ) {
+				collectClassFiles( f, packagePrefix + name + ".", previous, entries );
+			} else if( isTopLevelClassFile( name ) ) {
+				String cls = packagePrefix + name.substring( 0, name.length() - ".class".length() );
+				Entry entry = new Entry();
+				entry.lastModified = f.lastModified();
+				entry.length = f.length();
+				int p = previous == null ? -1 : previous.find( cls );
+				if( p >= 0 && previous.isUnchanged( p, f ) ) {
+					entry.hash = previous.hash( p );
+					entry.tags = previous.tags( p );
+				} else {
+					entry.hash = Long.parseUnsignedLong( new Fingerprint().update( f )
+					                                                      .toHex()
+					                                                      .substring( 0, 16 ), 16 );
+					entry.tags = ClassFile.read( f ).annotations;
+				}
+				entries.put( cls, entry );
+			}
+		}
+	}
+
+	//
+	// Writes the index through a buffered stream. The string table is the
+	// sorted union of the class names, which are already sorted, and the
+	// distinct tags, so the names are not copied.
+	//
+	private static void write(File file, Map<String, Entry> entries) throws IOException {
+		TreeSet<String> tags = new TreeSet<String>();
+		int tagCount = 0;
+		for( Entry entry : entries.values() ) {
+			tags.addAll( entry.tags );
+			tagCount += entry.tags.size();
+		}
+
+		Map<String, Integer> tagIds = new HashMap<String, Integer>();
+		int stringCount = 0;
+		long stringBytes = 0;
+		for( Iterator<String> strings = new SortedUnion( entries.keySet()
+		                                                      .iterator(), tags.iterator() ); strings.hasNext(); ) {
+			String s = strings.next();
+			Entry entry = entries.get( s );
+			if( entry != null ) {
+				entry.nameId = stringCount;
+			}
+			if( tags.contains( s ) ) {
+				tagIds.put( s, stringCount );
+			}
+			stringCount++;
+			stringBytes += s.getBytes( StandardCharsets.UTF_8 ).length;
+		}
+		if( stringBytes > Integer.MAX_VALUE ) {
+			throw new IOException( "Too many test classes to index" );
+		}
+
+		try (DataOutputStream out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( file ), 64 * 1024 ) )) {
+			out.writeInt( MAGIC );
+			out.writeInt( VERSION );
+			out.writeInt( entries.size() );
+			out.writeInt( tagCount );
+			out.writeInt( stringCount );
+			out.writeInt( (int) stringBytes );
+			int tagsStart = 0;
+			for( Entry entry : entries.values() ) {
+				out.writeInt( entry.nameId );
+				out.writeInt( tagsStart );
+				out.writeInt( entry.tags.size() );
+				out.writeLong( entry.lastModified );
+				out.writeLong( entry.length );
+				out.writeLong( entry.hash );
+				tagsStart += entry.tags.size();
+			}
+			for( Entry entry : entries.values() ) {
+				for( String tag : entry.tags ) {
+					out.writeInt( tagIds.get( tag ) );
+				}
+			}
+			int offset = 0;
+			for( Iterator<String> strings = new SortedUnion( entries.keySet()
+			                                                      .iterator(), tags.iterator() ); strings.hasNext(); ) {
+				out.writeInt( offset );
+				offset += strings.next()
+				                 .getBytes( StandardCharsets.UTF_8 ).length;
+			}
+			out.writeInt( offset );
+			for( Iterator<String> strings = new SortedUnion( entries.keySet()
+			                                                      .iterator(), tags.iterator() ); strings.hasNext(); ) {
+				out.write( strings.next()
+				                  .getBytes( StandardCharsets.UTF_8 ) );
+			}
+		}
+	}
+
+	// Merges two sorted iterators without duplicates
+	private static final class SortedUnion implements Iterator<String> {
+
+		private final Iterator<String> a;
+
+		private final Iterator<String> b;
+
+		private String nextA;
+
+		private String nextB;
+
+		SortedUnion(Iterator<String> a, Iterator<String> b) {
+			this.a = a;
+			this.b = b;
+			nextA = a.hasNext() ? a.next() : null;
+			nextB = b.hasNext() ? b.next() : null;
+		}
+
+		public boolean hasNext() {
+			return nextA != null || nextB != null;
+		}
+
+		public String next() {
+			if( !hasNext() ) {
+				throw new NoSuchElementException();
+			}
+			int cmp = nextA == null ? 1 : nextB == null ? -1 : nextA.compareTo( nextB );
+			String next = cmp <= 0 ? nextA : nextB;
+			if( cmp <= 0 ) {
+				nextA = a.hasNext() ? a.next() : null;
+			}
+			if( cmp >= 0 ) {
+				nextB = b.hasNext() ? b.next() : null;
+			}
+			return next;
+		}
+	}
+}
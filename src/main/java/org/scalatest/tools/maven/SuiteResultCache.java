@@ -0,0 +1,200 @@
+package org.scalatest.tools.maven;
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Local directory cache of the results of suites that passed, keyed by the suite's class files, the class files it
+ * transitively depends on in the project's output directories, and a fingerprint of the rest of the run (Runner
+ * arguments and runtime classpath).
+ * <p>
+ * An entry holds the output of the forked process and the files the suite wrote to the reports directory, i.e. its
+ * JUnit XML report <code>TEST-com.example.FooSuite.xml</code> and its HTML page <code>com.example.FooSuite.html</code>. The cache is bounded in
+ * size; the least recently used entries are evicted first, once at the end of a run.
+ * </p>
+ */
+final class SuiteResultCache {
+
+	private static final String OUTPUT = "output.log";
+
+	private static final String REPORTS = "reports";
+
+	private final File directory;
+
+	private final long maxSizeInBytes;
+
+	private final ClassDependencies dependencies;
+
+	private final String runFingerprint;
+
+	private final Log log;
+
+	// Per-run memoization, suites of a module typically share most of their dependencies
+	private final Map<File, String> classHashes = new HashMap<File, String>();
+
+	SuiteResultCache(File directory, long maxSizeInBytes, List<File> classDirectories, String runFingerprint, Log log) {
+		this.directory = directory;
+		this.maxSizeInBytes = maxSizeInBytes;
+		this.dependencies = new ClassDependencies( classDirectories );
+		this.runFingerprint = runFingerprint;
+		this.log = log;
+	}
+
+	/**
+	 * Computes the cache key of a suite.
+	 */
+	synchronized String key(String suite) throws IOException {
+		Fingerprint fingerprint = new Fingerprint().update( runFingerprint )
+		                                           .update( suite );
+		for( Map.Entry<String, File> dependency : dependencies.transitive( suite ).entrySet() ) {
+			fingerprint.update( dependency.getKey() )
+			           .update( classHash( dependency.getValue() ) );
+		}
+		return fingerprint.toHex();
+	}
+
+	private String classHash(File file) throws IOException {
+		String hash = classHashes.get( file );
+		if( hash == null ) {
+			hash = new Fingerprint().update( file )
+			                        .toHex();
+			classHashes.put( file, hash );
+		}
+		return hash;
+	}
+
+	/**
+	 * Restores a cached result: copies the recorded reports back into the reports directory, adding the copies to
+	 * <code>restoredReports</code>, and returns the recorded output, or returns null if there is no entry for the key.
+	 * The copies keep the modification time of the reports the suite wrote when it last ran.
+	 */
+	List<String> restore(String key, File reportsDirectory, List<File> restoredReports) {
+		File entry = new File( directory, key );
+		File output = new File( entry, OUTPUT );
+		if( !output.isFile() ) {
+			return null;
+		}
+		try {
+			File reports = new File( entry, REPORTS );
+			if( reportsDirectory != null && reports.isDirectory() ) {
+				copyReports( reports, reportsDirectory, restoredReports );
+			}
+			List<String> lines = Files.readAllLines( output.toPath(), StandardCharsets.UTF_8 );
+			// the modification time of an entry is its last use
+			entry.setLastModified( System.currentTimeMillis() );
+			return lines;
+		} catch (IOException e) {
+			log.warn( "Unable to restore cached result " + entry + ": " + e.getMessage() );
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the result of a suite that passed. The cache may grow beyond its size until {@link #evict()}.
+	 */
+	void store(String key, String suite, List<String> output, File reportsDirectory) {
+		File entry = new File( directory, key );
+		File temp = new File( directory, key + ".tmp" );
+		try {
+			FileUtils.deleteDirectory( temp );
+			File reports = new File( temp, REPORTS );
+			if( reportsDirectory != null ) {
+				copySuiteReports( suite, reportsDirectory, reports );
+			}
+			temp.mkdirs();
+			Files.write( new File( temp, OUTPUT ).toPath(), output, StandardCharsets.UTF_8 );
+			FileUtils.deleteDirectory( entry );
+			if( !temp.renameTo( entry ) ) {
+				throw new IOException( "Cannot rename " + temp + " to " + entry );
+			}
+		} catch (IOException e) {
+			log.warn( "Unable to cache result of " + suite + ": " + e.getMessage() );
+		}
+	}
+
+	private static void copyReports(File from, File to, List<File> copies) throws IOException {
+		File[] files = from.listFiles();
+		if( files == null ) {
+			return;
+		}
+		for( File file : files ) {
+			File target = new File( to, file.getName() );
+			if( file.isDirectory() ) {
+				copyReports( file, target, copies );
+			} else {
+				FileUtils.copyFile( file, target );
+				copies.add( target );
+			}
+		}
+	}
+
+	private static void copySuiteReports(String suite, File from, File to) throws IOException {
+		copySuiteReports( new HashSet<String>( Arrays.asList( "TEST-" + suite + ".xml", suite + ".html" ) ), from, to );
+	}
+
+	private static void copySuiteReports(Set<String> reportNames, File from, File to) throws IOException {
+		File[] files = from.listFiles();
+		if( files == null ) {
+			return;
+		}
+		for( File file : files ) {
+			File target = new File( to, file.getName() );
+			if( file.isDirectory() ) {
+				copySuiteReports( reportNames, file, target );
+			} else if( reportNames.contains( file.getName() ) ) {
+				FileUtils.copyFile( file, target );
+			}
+		}
+	}
+
+	/**
+	 * Evicts the least recently used entries until the cache fits its size. Sizing the entries takes a walk over the
+	 * whole cache, which is why this is done once per run rather than whenever a result is stored.
+	 */
+	synchronized void evict() {
+		File[] entries = directory.listFiles();
+		if( entries == null ) {
+			return;
+		}
+		long total = 0;
+		final Map<File, Long> sizes = new HashMap<File, Long>();
+		for( File entry : entries ) {
+			long size = FileUtils.sizeOfDirectory( entry );
+			sizes.put( entry, size );
+			total += size;
+		}
+		if( total <= maxSizeInBytes ) {
+			return;
+		}
+		Arrays.sort( entries, new Comparator<File>() {
+
+			public int compare(File a, File b) {
+				return Long.compare( a.lastModified(), b.lastModified() );
+			}
+		} );
+		for( File entry : entries ) {
+			if( total <= maxSizeInBytes ) {
+				break;
+			}
+			try {
+				FileUtils.deleteDirectory( entry );
+				total -= sizes.get( entry );
+				log.debug( "Evicted cached suite result " + entry );
+			} catch (IOException e) {
+				log.warn( "Unable to evict cached suite result " + entry + ": " + e.getMessage() );
+			}
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package org.scalatest.tools.maven;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The durations and outcomes of suites recorded by previous runs, kept in a text file with one line per suite holding
+ * the duration in milliseconds or -1 if unknown, "passed" or "failed", and the suite's class name, separated by tabs.
+ */
+final class SuiteStatistics {
+
+	private static final String FAILED = "failed";
+
+	private static final String PASSED = "passed";
+
+	private final File file;
+
+	private final Log log;
+
+	private final Map<String, Long> durations = new TreeMap<String, Long>();
+
+	private final Set<String> failed = new TreeSet<String>();
+
+	private SuiteStatistics(File file, Log log) {
+		this.file = file;
+		this.log = log;
+	}
+
+	/**
+	 * Reads the statistics from a file. Missing or unreadable files result in empty statistics.
+	 */
+	static SuiteStatistics load(File file, Log log) {
+		SuiteStatistics statistics = new SuiteStatistics( file, log );
+		if( file.isFile() ) {
+			try {
+				for( String line : Files.readAllLines( file.toPath(), StandardCharsets.UTF_8 ) ) {
+					String[] fields = line.split( "\t", 3 );
+					if( fields.length == 3 ) {
+						long duration = Long.parseLong( fields[0] );
+						if( duration >= 0 ) {
+							statistics.durations.put( fields[2], duration );
+						}
+						if( FAILED.equals( fields[1] ) ) {
+							statistics.failed.add( fields[2] );
+						}
+					}
+				}
+			} catch (IOException | NumberFormatException e) {
+				log.warn( "Ignoring unreadable suite statistics " + file + ": " + e.getMessage() );
+				statistics.durations.clear();
+				statistics.failed.clear();
+			}
+		}
+		return statistics;
+	}
+
+	/**
+	 * Returns the last recorded duration of a suite in milliseconds, or null if none was recorded.
+	 */
+	synchronized Long duration(String suite) {
+		return durations.get( suite );
+	}
+
+	/**
+	 * Whether the suite failed when it last ran.
+	 */
+	synchronized boolean failed(String suite) {
+		return failed.contains( suite );
+	}
+
+	synchronized void record(String suite, long durationInMillis) {
+		durations.put( suite, durationInMillis );
+	}
+
+	synchronized void recordResult(String suite, boolean passed) {
+		if( passed ) {
+			failed.remove( suite );
+		} else {
+			failed.add( suite );
+		}
+	}
+
+	synchronized void save() {
+		Set<String> suites = new TreeSet<String>( durations.keySet() );
+		suites.addAll( failed );
+		List<String> lines = new ArrayList<String>( suites.size() );
+		for( String suite : suites ) {
+			Long duration = durations.get( suite );
+			lines.add( ( duration == null ? -1 : duration ) + "\t" + ( failed.contains( suite ) ? FAILED : PASSED ) + "\t" + suite );
+		}
+		try {
+			file.getParentFile()
+			    .mkdirs();
+			Files.write( file.toPath(), lines, StandardCharsets.UTF_8 );
+		} catch (IOException e) {
+			log.warn( "Unable to save suite statistics " + file + ": " + e.getMessage() );
+		}
+	}
+}
@@ -2,17 +2,20 @@ package org.scalatest.tools.maven;
 
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.cli.CommandLineException;
 import org.codehaus.plexus.util.cli.CommandLineUtils;
 import org.codehaus.plexus.util.cli.Commandline;
 import org.codehaus.plexus.util.cli.StreamConsumer;
 
 import java.io.File;
-import java.net.URL;
-import java.net.URLClassLoader;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class TestClassesCollector {
 
@@ -43,22 +46,39 @@ public class TestClassesCollector {
 	}
 
 	public List<String> testClasses() {
-		ArrayList<String> classes = new ArrayList<String>();
-		Iterator<String> paths = collect( path ).iterator();
-		while( paths.hasNext() ) {
-			String classPath = paths.next();
-			if( classPath.indexOf( "$" ) > -1 ) {
-				classPath = classPath.substring( 0, classPath.indexOf( "$" ) );
+		// sorted and without duplicates, as nested classes map to their top-level class
+		Set<String> classes = new TreeSet<String>();
+		String root = new File( path ).getAbsolutePath() + File.separator;
+		for( String classPath : collect( path ) ) {
+			if( !classPath.endsWith( ".class" ) || !classPath.startsWith( root ) ) {
+				continue;
 			}
-			String classToAdd = classPath.replaceAll( path, "" )
-			                             .replaceAll( ".class", "" )
-			                             .replace( File.separatorChar, '.' );
-			if( !classes.contains( classToAdd ) ) {
-				classes.add( classToAdd );
+			String relative = classPath.substring( root.length(), classPath.length() - ".class".length() );
+			if( relative.indexOf( "$" ) > -1 ) {
+				relative = relative.substring( 0, relative.indexOf( "$" ) );
 			}
+			classes.add( relative.replace( File.separatorChar, '.' ) );
+		}
+		return new ArrayList<String>( classes );
+	}
+
+	/**
+	 * Checks the compiled class file of a suite for any of the given class-level annotations, without loading the class.
+	 *
+	 * @param cls         a fully qualified class name
+	 * @param annotations fully qualified annotation names
+	 * @return true if the class carries at least one of the annotations, false otherwise or if it can't be read
+	 */
+	public boolean isAnnotatedWithAny(String cls, Collection<String> annotations) {
+		if( annotations.isEmpty() ) {
+			return false;
+		}
+		File classFile = new File( path, cls.replace( '.', File.separatorChar ) + ".class" );
+		try {
+			return !Collections.disjoint( ClassFile.read( classFile ).annotations, annotations );
+		} catch (IOException e) {
+			return false;
 		}
-		Collections.sort( classes );
-		return classes;
 	}
 
 	/**
@@ -98,4 +118,60 @@ public class TestClassesCollector {
 		}
 	}
 
+	/**
+	 * Like {@link #isClassATestSuite}, but checks all classes in a single forked process running {@link SuiteDetector}.
+	 * 
+	 * @param log       mojo logger
+	 * @param baseDir   project's base directory
+	 * @param classPath classpath to use, which must include the plugin's jar
+	 * @param classes   fully qualified class names
+	 * @return the classes that are test suites, in the given order
+	 */
+	public List<String> testSuites(Log log, String baseDir, String classPath, List<String> classes) throws MojoFailureException {
+		File in = null;
+		File out = null;
+		try {
+			in = File.createTempFile( "scalatest-classes", ".txt" );
+			out = File.createTempFile( "scalatest-suites", ".txt" );
+			ArgumentFileRunner.write( in, classes );
+
+			final Commandline cli = new Commandline();
+			cli.setWorkingDirectory( baseDir );
+			cli.setExecutable( "java" );
+			cli.addEnvironment( "CLASSPATH", classPath );
+			cli.createArg()
+			   .setValue( String.format( "-Dbasedir=%s", baseDir ) );
+			cli.createArg()
+			   .setValue( SuiteDetector.class.getName() );
+			cli.createArg()
+			   .setFile( in );
+			cli.createArg()
+			   .setFile( out );
+			log.debug( "Detecting test suites via: " + cli );
+			final StreamConsumer streamConsumer = line -> System.out.println( line );
+			final int result = CommandLineUtils.executeCommandLine( cli, streamConsumer, streamConsumer );
+			if( result != 0 ) {
+				throw new MojoFailureException( "Suite detector exited with " + result + "." );
+			}
+
+			Set<String> suites = new HashSet<String>( ArgumentFileRunner.read( out ) );
+			List<String> testSuites = new ArrayList<String>();
+			for( String cls : classes ) {
+				if( suites.contains( cls ) ) {
+					testSuites.add( cls );
+				}
+			}
+			return testSuites;
+		} catch (IOException | CommandLineException ex) {
+			throw new MojoFailureException( "Exception while running suite detector.", ex );
+		} finally {
+			if( in != null ) {
+				in.delete();
+			}
+			if( out != null ) {
+				out.delete();
+			}
+		}
+	}
+
 }
@@ -2,13 +2,22 @@ package org.scalatest.tools.maven;
 
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
 import static org.scalatest.tools.maven.MojoUtils.*;
 
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import static java.util.Collections.singletonList;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.regex.Pattern;
 
 /**
  * Provides a bridge between Maven and the command-line form of ScalaTest's Runner. Many of the configuration options
@@ -101,12 +110,168 @@ public class TestMojo extends AbstractScalaTestMojo {
 	 */
 	String stderr;
 
+	/**
+	 * Set to true to skip running the tests when neither the configuration, the output directories nor the test
+	 * classpath changed since the last successful run. The output of the forked processes of that run is replayed
+	 * instead. Jars on the test classpath are compared by size and modification time, directories by content. Ignored
+	 * with <code>forkMode</code> "never", whose output can't be replayed.
+	 *
+	 * @parameter property="scalatest.skipIfUpToDate" default-value="false"
+	 */
+	boolean skipIfUpToDate;
+
+	/**
+	 * File in which the fingerprint of the inputs of the last successful run is stored.
+	 *
+	 * @parameter default-value="${project.build.directory}/scalatest-fingerprint"
+	 * @readonly
+	 */
+	File fingerprintFile;
+
+	/**
+	 * File in which the output of the forked processes of the last run is stored, so that it can be replayed.
+	 *
+	 * @parameter default-value="${project.build.directory}/scalatest-output.log"
+	 * @readonly
+	 */
+	File outputLogFile;
+
+	/**
+	 * Name of a file, relative to <code>reportsDirectory</code>, into which the files written by the
+	 * <code>junitxml</code> reporters are merged as a single <code>testsuites</code> document. The file is extended
+	 * every time a forked process completes.
+	 *
+	 * @parameter property="junitxmlAggregate"
+	 */
+	String junitxmlAggregate;
+
+	private static final Pattern WHITESPACES = Pattern.compile( "\\s+" );
+
+	private Writer outputLog;
+
+	private volatile JUnitXmlAggregator junitXmlAggregator;
+
 	public void execute() throws MojoExecutionException, MojoFailureException {
 		if( skipTests ) {
 			getLog().info( "Tests are skipped." );
 		} else {
-			if( !runScalaTest( configuration() ) && !testFailureIgnore ) {
-				throw new MojoFailureException( "There are test failures" );
+			String[] configuration = configuration();
+			if( skipIfUpToDate && !forkMode.equals( "never" ) ) {
+				runUnlessUpToDate( configuration );
+			} else {
+				if( skipIfUpToDate ) {
+					getLog().warn( "skipIfUpToDate is ignored with forkMode never, as the output of the tests can't be replayed." );
+				}
+				if( !runTests( configuration ) && !testFailureIgnore ) {
+					throw new MojoFailureException( "There are test failures" );
+				}
+			}
+		}
+	}
+
+	private void runUnlessUpToDate(String[] configuration) throws MojoExecutionException, MojoFailureException {
+		String fingerprint;
+		try {
+			fingerprint = inputsFingerprint( configuration );
+			if( fingerprintFile.isFile() && outputLogFile.isFile()
+			    && fingerprint.equals( FileUtils.fileRead( fingerprintFile, "UTF-8" ) ) ) {
+				getLog().info( "Tests are up to date. Replaying output of the previous run." );
+				System.out.print( FileUtils.fileRead( outputLogFile, "UTF-8" ) );
+				return;
+			}
+			fingerprintFile.delete();
+			outputLogFile.getParentFile()
+			             .mkdirs();
+			outputLog = new BufferedWriter( new OutputStreamWriter( new FileOutputStream( outputLogFile ), StandardCharsets.UTF_8 ) );
+		} catch (IOException e) {
+			throw new MojoExecutionException( "Unable to check whether tests are up to date.", e );
+		}
+
+		boolean passed;
+		try {
+			passed = runTests( configuration );
+		} finally {
+			IOUtil.close( outputLog );
+			outputLog = null;
+		}
+
+		if( passed ) {
+			try {
+				FileUtils.fileWrite( fingerprintFile, "UTF-8", fingerprint );
+			} catch (IOException e) {
+				getLog().warn( "Unable to store fingerprint of the test inputs: " + e.getMessage() );
+			}
+		} else if( !testFailureIgnore ) {
+			throw new MojoFailureException( "There are test failures" );
+		}
+	}
+
+	// Runs ScalaTest, merging the JUnit XML reports if so configured
+	private boolean runTests(String[] configuration) throws MojoFailureException {
+		if( junitxmlAggregate == null || junitxml == null ) {
+			return runScalaTest( configuration );
+		}
+		try {
+			junitXmlAggregator = new JUnitXmlAggregator( new File( reportsDirectory, junitxmlAggregate ), junitxmlDirectories(), getLog() );
+		} catch (IOException e) {
+			getLog().warn( "Unable to aggregate JUnit XML reports: " + e.getMessage() );
+			return runScalaTest( configuration );
+		}
+		try {
+			return runScalaTest( configuration );
+		} finally {
+			try {
+				junitXmlAggregator.close();
+			} catch (IOException e) {
+				getLog().warn( "Unable to aggregate JUnit XML reports: " + e.getMessage() );
+			}
+			junitXmlAggregator = null;
+		}
+	}
+
+	@Override
+	void forkCompleted() {
+		JUnitXmlAggregator aggregator = junitXmlAggregator;
+		if( aggregator != null ) {
+			try {
+				aggregator.collect();
+			} catch (IOException e) {
+				getLog().warn( "Unable to aggregate JUnit XML reports: " + e.getMessage() );
+			}
+		}
+	}
+
+	@Override
+	void resultRestored(List<File> reports) {
+		JUnitXmlAggregator aggregator = junitXmlAggregator;
+		if( aggregator != null ) {
+			try {
+				aggregator.include( reports );
+			} catch (IOException e) {
+				getLog().warn( "Unable to aggregate JUnit XML reports: " + e.getMessage() );
+			}
+		}
+	}
+
+	@Override
+	File reportsDirectory() {
+		return reportsDirectory;
+	}
+
+	@Override
+	void forkOutput(String line) {
+		super.forkOutput( line );
+		synchronized( this ) {
+			if( outputLog != null ) {
+				try {
+					outputLog.write( line );
+					outputLog.write( '\n' );
+				} catch (IOException e) {
+					getLog().warn( "Unable to record forked process output: " + e.getMessage() );
+					IOUtil.close( outputLog );
+					outputLog = null;
+					outputLogFile.delete();
+				}
 			}
 		}
 	}
@@ -133,7 +298,7 @@ public class TestMojo extends AbstractScalaTestMojo {
 		List<String> r = new ArrayList<String>();
 
 		for( String arg : splitOnComma( htmlreporters ) ) {
-			String[] split = arg.split( "\\s+" );
+			String[] split = WHITESPACES.split( arg );
 
 			if( split.length > 0 ) {
 				r.add( "-h" );
@@ -155,4 +320,13 @@ public class TestMojo extends AbstractScalaTestMojo {
 	private List<String> junitxml() {
 		return reporterArg( "-u", junitxml, dirRelativeTo( reportsDirectory ) );
 	}
+
+	private List<File> junitxmlDirectories() {
+		List<File> directories = new ArrayList<File>();
+		for( String arg : splitOnComma( junitxml ) ) {
+			String[] split = WHITESPACE.split( arg );
+			directories.add( new File( reportsDirectory, split[split.length - 1] ) );
+		}
+		return directories;
+	}
 }
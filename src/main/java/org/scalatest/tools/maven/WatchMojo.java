@@ -0,0 +1,359 @@
+package org.scalatest.tools.maven;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.codehaus.plexus.util.cli.CommandLineException;
+import org.codehaus.plexus.util.cli.Commandline;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+import static org.scalatest.tools.maven.MojoUtils.*;
+
+/**
+ * Runs the tests, then keeps watching the output directories and re-runs the suites affected by recompiled classes,
+ * i.e. those whose class files or the class files they depend on changed. The Runner is kept alive in a forked JVM
+ * between runs, and loads the project's classes with a fresh class loader on every run. The goal runs until it is
+ * interrupted.
+ *
+ * @goal watch
+ * @requiresDependencyResolution test
+ */
+public class WatchMojo extends AbstractScalaTestMojo {
+
+	/**
+	 * Time in milliseconds to wait for further changes after a change was detected, so that the class files written by
+	 * a single compilation are picked up together.
+	 *
+	 * @parameter property="scalatest.watchQuietPeriod" default-value="200"
+	 */
+	int quietPeriod = 200;
+
+	private final Map<WatchKey, Path> watchedDirectories = new HashMap<WatchKey, Path>();
+
+	private ClassDependencies dependencies;
+
+	/**
+	 * The classes whose class files changed since the last run, or whether changes were lost, e.g. because of a
+	 * WatchService overflow.
+	 */
+	static final class Changes {
+
+		final Set<String> classes;
+
+		final boolean overflow;
+
+		Changes(Set<String> classes, boolean overflow) {
+			this.classes = classes;
+			this.overflow = overflow;
+		}
+	}
+
+	public void execute() throws MojoExecutionException, MojoFailureException {
+		List<String> args = new ArrayList<String>( sharedConfiguration() );
+		args.add( "-o" );
+
+		dependencies = new ClassDependencies( Arrays.asList( testOutputDirectory.getAbsoluteFile(), outputDirectory.getAbsoluteFile() ) );
+		WatchedRunner runner = new WatchedRunner( forkRunner() );
+		try (WatchService watcher = FileSystems.getDefault()
+		                                       .newWatchService()) {
+			ReverseDependencies dependents = watch( watcher );
+
+			report( runner.run( args ) );
+			while( true ) {
+				Changes changes = awaitChanges( watcher );
+				if( changes.overflow ) {
+					// class files may have been added in directories that were never watched
+					dependents = watch( watcher );
+				}
+				Boolean passed = rerun( runner, args, dependents, changes );
+				if( passed != null ) {
+					report( passed );
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread()
+			      .interrupt();
+		} catch (IOException e) {
+			throw new MojoExecutionException( "Unable to watch for changes.", e );
+		} finally {
+			runner.destroy();
+		}
+	}
+
+	//
+	// Re-runs the suites affected by the changes, or all suites if changes
+	// were lost. Returns whether all tests passed, or null if no suite is
+	// affected.
+	//
+	Boolean rerun(WatchedRunner runner, List<String> args, ReverseDependencies dependents, Changes changes)
+	        throws IOException, InterruptedException, MojoFailureException {
+		if( changes.overflow ) {
+			getLog().info( "Re-running all suites." );
+			return runner.run( args );
+		}
+		for( String cls : changes.classes ) {
+			try {
+				dependents.update( cls );
+			} catch (IOException e) {
+				getLog().warn( "Unable to read the class file of " + cls + ": " + e.getMessage() );
+			}
+		}
+		List<String> candidates = new ArrayList<String>();
+		for( String cls : dependents.dependents( changes.classes ) ) {
+			if( cls.indexOf( '$' ) < 0 && new File( testOutputDirectory, cls.replace( '.', File.separatorChar ) + ".class" ).isFile() ) {
+				candidates.add( cls );
+			}
+		}
+		List<String> suites = candidates.isEmpty() ? candidates : runner.suites( outputDirectory.getAbsolutePath() + File.pathSeparator
+		                                                                         + testOutputDirectory.getAbsolutePath(), candidates );
+		if( suites.isEmpty() ) {
+			getLog().debug( "No suites affected by changes to " + changes.classes );
+			return null;
+		}
+		getLog().info( "Re-running suites affected by changes: " + suites );
+		List<String> rerunArgs = withoutSuiteSelection( concat( args ) );
+		for( String suite : suites ) {
+			rerunArgs.add( "-s" );
+			rerunArgs.add( suite );
+		}
+		return runner.run( rerunArgs );
+	}
+
+	private void report(boolean passed) {
+		if( passed ) {
+			getLog().info( "All tests passed. Waiting for changes..." );
+		} else {
+			getLog().error( "There are test failures. Waiting for changes..." );
+		}
+	}
+
+	// Watches the output directories and reads the references of all classes in them
+	private ReverseDependencies watch(WatchService watcher) throws IOException {
+		Set<String> classes = new TreeSet<String>();
+		register( watcher, outputDirectory.toPath(), classes );
+		register( watcher, testOutputDirectory.toPath(), classes );
+		ReverseDependencies dependents = new ReverseDependencies( dependencies );
+		for( String cls : classes ) {
+			dependents.update( cls );
+		}
+		return dependents;
+	}
+
+	// Watches a directory tree. The classes found in it are added to 'found'.
+	private void register(final WatchService watcher, Path root, final Set<String> found) throws IOException {
+		if( !Files.isDirectory( root ) ) {
+			return;
+		}
+		Files.walkFileTree( root, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				watchedDirectories.put( dir.register( watcher, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE ), dir );
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				String className = className( file );
+				if( className != null ) {
+					found.add( className );
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		} );
+	}
+
+	//
+	// Blocks until class files change, then collects further changes until
+	// none occurred for quietPeriod.
+	//
+	private Changes awaitChanges(WatchService watcher) throws InterruptedException, IOException {
+		Set<String> changed = new TreeSet<String>();
+		boolean overflow = false;
+		WatchKey key = watcher.take();
+		do {
+			Path dir = watchedDirectories.get( key );
+			for( WatchEvent<?> event : key.pollEvents() ) {
+				if( event.kind() == OVERFLOW || dir == null ) {
+					overflow = true;
+					continue;
+				}
+				Path path = dir.resolve( (Path) event.context() );
+				if( event.kind() == ENTRY_CREATE && Files.isDirectory( path ) ) {
+					// including class files written before the directory was watched
+					register( watcher, path, changed );
+				} else {
+					String className = className( path );
+					if( className != null ) {
+						changed.add( className );
+					}
+				}
+			}
+			if( !key.reset() ) {
+				watchedDirectories.remove( key );
+			}
+		} while( ( key = watcher.poll( quietPeriod, TimeUnit.MILLISECONDS ) ) != null );
+		return new Changes( changed, overflow );
+	}
+
+	// Returns null if the file is not a class file in one of the output directories
+	private String className(Path classFile) {
+		if( !classFile.getFileName()
+		              .toString()
+		              .endsWith( ".class" ) ) {
+			return null;
+		}
+		for( File root : Arrays.asList( outputDirectory, testOutputDirectory ) ) {
+			Path rootPath = root.toPath();
+			if( classFile.startsWith( rootPath ) ) {
+				String relative = rootPath.relativize( classFile )
+				                          .toString();
+				return relative.substring( 0, relative.length() - ".class".length() )
+				               .replace( File.separatorChar, '.' );
+			}
+		}
+		return null;
+	}
+
+	//
+	// Forks the JVM running WatchRunner. Its classpath holds the
+	// dependencies but not the output directories, which are passed to
+	// the Runner as runpath instead.
+	//
+	private Process forkRunner() throws MojoExecutionException {
+		List<String> elements = new ArrayList<String>( testClasspathElements() );
+		elements.remove( outputDirectory.getAbsolutePath() );
+		elements.remove( testOutputDirectory.getAbsolutePath() );
+		elements.add( pluginClasspathElement() );
+		StringBuilder classPath = new StringBuilder();
+		for( String element : elements ) {
+			if( classPath.length() > 0 ) {
+				classPath.append( File.pathSeparator );
+			}
+			classPath.append( element );
+		}
+
+		Commandline cli = forkCommandline( classPath.toString() );
+		cli.createArg()
+		   .setValue( WatchRunner.class.getName() );
+		getLog().debug( "Forking ScalaTest watch runner via: " + cli );
+		try {
+			return cli.execute();
+		} catch (CommandLineException e) {
+			throw new MojoExecutionException( "Exception while executing forked process.", e );
+		}
+	}
+
+	// Sends requests to the forked JVM running WatchRunner
+	final class WatchedRunner {
+
+		private final Process process;
+
+		private final Writer requests;
+
+		private final BlockingQueue<String> results = new LinkedBlockingQueue<String>();
+
+		WatchedRunner(Process process) {
+			this.process = process;
+			requests = new BufferedWriter( new OutputStreamWriter( process.getOutputStream(), StandardCharsets.UTF_8 ) );
+			pump( process.getInputStream() );
+			pump( process.getErrorStream() );
+		}
+
+		private void pump(final InputStream stream) {
+			Thread pumper = new Thread( new Runnable() {
+
+				public void run() {
+					try (BufferedReader reader = new BufferedReader( new InputStreamReader( stream, StandardCharsets.UTF_8 ) )) {
+						String line;
+						while( ( line = reader.readLine() ) != null ) {
+							// a test may leave output without a line separator, which the marker is then appended to
+							int done = line.lastIndexOf( WatchRunner.DONE );
+							if( done < 0 ) {
+								forkOutput( line );
+							} else {
+								if( done > 0 ) {
+									forkOutput( line.substring( 0, done ) );
+								}
+								results.add( line.substring( done + WatchRunner.DONE.length() ) );
+							}
+						}
+					} catch (IOException e) {
+						// process ended
+					}
+				}
+			}, "scalatest-watch-output" );
+			pumper.setDaemon( true );
+			pumper.start();
+		}
+
+		// Returns true if all tests pass
+		boolean run(List<String> args) throws IOException, InterruptedException, MojoFailureException {
+			return Boolean.parseBoolean( request( WatchRunner.RUN, args ) );
+		}
+
+		// Returns the classes that are suites, loaded from the runpath
+		List<String> suites(String runpath, List<String> classes) throws IOException, InterruptedException, MojoFailureException {
+			List<String> args = new ArrayList<String>();
+			args.add( runpath );
+			args.addAll( classes );
+			List<String> suites = new ArrayList<String>();
+			for( String suite : request( WatchRunner.SUITES, args ).split( " " ) ) {
+				if( !suite.isEmpty() ) {
+					suites.add( suite );
+				}
+			}
+			return suites;
+		}
+
+		private String request(String kind, List<String> args) throws IOException, InterruptedException, MojoFailureException {
+			requests.write( kind + "\n" );
+			requests.write( args.size() + "\n" );
+			for( String arg : args ) {
+				requests.write( WatchRunner.escape( arg ) + "\n" );
+			}
+			requests.flush();
+			while( true ) {
+				String result = results.poll( 1, TimeUnit.SECONDS );
+				if( result != null ) {
+					return result;
+				}
+				if( !process.isAlive() ) {
+					throw new MojoFailureException( "Forked ScalaTest watch runner exited with " + process.exitValue() );
+				}
+			}
+		}
+
+		void destroy() {
+			process.destroy();
+		}
+	}
+}
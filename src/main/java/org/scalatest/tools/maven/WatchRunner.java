@@ -0,0 +1,114 @@
+package org.scalatest.tools.maven;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Main class of the long-lived process forked by the <code>watch</code> goal. It reads requests from stdin and either
+ * passes them to ScalaTest's Runner or tells suites from other classes. The project's classes are not on this process'
+ * classpath but on the Runner's runpath, for which Runner creates a fresh class loader on every run, so recompiled
+ * classes are always picked up. Suites are told apart with a fresh class loader as well.
+ * <p>
+ * A request is a line with its kind, {@link #RUN} or {@link #SUITES}, a line with the number of arguments and one line
+ * per argument, escaped with {@link #escape(String)}. The arguments of a run are the Runner's, those of a suites
+ * request the runpath, separated by the path separator, followed by the names of the classes to check. After each
+ * request {@link #DONE} and the result are printed at the end of a line, which also holds any output the request left
+ * without a line separator. The result of a run is whether all tests passed, that of a suites request the names of
+ * the classes that are suites, separated by spaces. The process exits at the end of stdin.
+ * </p>
+ * <p>
+ * This class runs in the forked process and must not depend on Maven.
+ * </p>
+ */
+public final class WatchRunner {
+
+	static final String DONE = "##scalatest-watch-done:";
+
+	static final String RUN = "run";
+
+	static final String SUITES = "suites";
+
+	private WatchRunner() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Method run = Class.forName( "org.scalatest.tools.Runner" )
+		                  .getMethod( "run", String[].class );
+		BufferedReader in = new BufferedReader( new InputStreamReader( System.in, StandardCharsets.UTF_8 ) );
+		String kind;
+		while( ( kind = in.readLine() ) != null ) {
+			String[] requestArgs = new String[Integer.parseInt( unescape( in.readLine() ).trim() )];
+			for( int i = 0; i < requestArgs.length; i++ ) {
+				requestArgs[i] = unescape( in.readLine() );
+			}
+			String result;
+			if( kind.equals( SUITES ) ) {
+				result = suites( requestArgs );
+			} else {
+				boolean passed;
+				try {
+					passed = (Boolean) run.invoke( null, new Object[] { requestArgs } );
+				} catch (InvocationTargetException e) {
+					e.getTargetException()
+					 .printStackTrace();
+					passed = false;
+				}
+				result = String.valueOf( passed );
+			}
+			System.out.println( DONE + result );
+			System.out.flush();
+		}
+	}
+
+	private static String suites(String[] args) throws IOException {
+		String[] runpath = args[0].split( File.pathSeparator );
+		URL[] urls = new URL[runpath.length];
+		for( int i = 0; i < runpath.length; i++ ) {
+			urls[i] = new File( runpath[i] ).toURI()
+			                                .toURL();
+		}
+		StringBuilder result = new StringBuilder();
+		try (URLClassLoader loader = new URLClassLoader( urls, WatchRunner.class.getClassLoader() )) {
+			for( String suite : SuiteDetector.suites( loader, Arrays.asList( args ).subList( 1, args.length ) ) ) {
+				if( result.length() > 0 ) {
+					result.append( ' ' );
+				}
+				result.append( suite );
+			}
+		} catch (ClassNotFoundException e) {
+			// without ScalaTest there are no suites
+		}
+		return result.toString();
+	}
+
+	static String escape(String arg) {
+		return arg.replace( "\\", "\\\\" )
+		          .replace( "\n", "\\n" )
+		          .replace( "\r", "\\r" );
+	}
+
+	static String unescape(String line) throws IOException {
+		if( line == null ) {
+			throw new IOException( "Unexpected end of request" );
+		}
+		StringBuilder arg = new StringBuilder( line.length() );
+		for( int i = 0; i < line.length(); i++ ) {
+			char c = line.charAt( i );
+			if( c == '\\' && i + 1 < line.length() ) {
+				char escaped = line.charAt( ++i );
+				arg.append( escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped );
+			} else {
+				arg.append( c );
+			}
+		}
+		return arg.toString();
+	}
+}
@@ -5,6 +5,10 @@ import org.scalatest.matchers.should.Matchers
 import org.scalatestplus.junit.JUnit3Suite
 import java.util.ArrayList
 import org.scalatest.BeforeAndAfterAll
+import org.scalatest.Ignore
+import org.scalatest.funsuite.AnyFunSuite
+import org.apache.maven.plugin.logging.SystemStreamLog
+import org.apache.maven.project.MavenProject
 
 /**
   * @author Jon -Anders Teigen
@@ -189,4 +193,513 @@ final class PluginTest extends JUnit3Suite with BeforeAndAfterAll with Matchers
     MojoUtils.compoundArg("-a", comma("a", "b", "c")) should be(jlist("-a", "a b c"))
     MojoUtils.compoundArg("-a", null.asInstanceOf[String]) should be(jlist())
   }
+
+  def testClassFile {
+    val classes = new File(classOf[PluginTest].getProtectionDomain.getCodeSource.getLocation.toURI)
+    val classFile = ClassFile.read(new File(classes, classOf[PluginTest].getName.replace('.', File.separatorChar) + ".class"))
+    classFile.name should be(classOf[PluginTest].getName)
+    classFile.annotations should contain("scala.reflect.ScalaSignature")
+  }
+
+  def testSuiteResultCache {
+    val cacheDir = new File(baseDir, "cache")
+    val reports = new File(baseDir, "reports")
+    reports.mkdirs()
+    java.nio.file.Files.write(new File(reports, "TEST-a.FooSuite.xml").toPath, "<testsuite/>".getBytes)
+    java.nio.file.Files.write(new File(reports, "TEST-a.FooSuiteTwo.xml").toPath, "<testsuite/>".getBytes)
+    val cache = new SuiteResultCache(cacheDir, 1024 * 1024, java.util.Arrays.asList(baseDir), "run", new SystemStreamLog)
+
+    cache.restore("key", reports, new ArrayList[File]) should be(null)
+    cache.store("key", "a.FooSuite", jlist("line 1", "line 2"), reports)
+    new File(reports, "TEST-a.FooSuite.xml").delete()
+    new File(reports, "TEST-a.FooSuiteTwo.xml").delete()
+
+    val restored = new ArrayList[File]
+    cache.restore("key", reports, restored) should be(jlist("line 1", "line 2"))
+    restored should be(java.util.Arrays.asList(new File(reports, "TEST-a.FooSuite.xml")))
+    new File(reports, "TEST-a.FooSuite.xml") should be a 'file
+    new File(reports, "TEST-a.FooSuiteTwo.xml") should not be a 'file
+  }
+
+  def testSuiteResultCacheEviction {
+    val cacheDir = new File(baseDir, "evicted-cache")
+    val cache = new SuiteResultCache(cacheDir, 15, java.util.Arrays.asList(baseDir), "run", new SystemStreamLog)
+    cache.store("old", "a.FooSuite", jlist("0123456789"), null)
+    new File(cacheDir, "old").setLastModified(System.currentTimeMillis - 3600 * 1000)
+    cache.store("new", "a.BarSuite", jlist("0123456789"), null)
+    new File(cacheDir, "old") should be a 'directory
+
+    cache.evict()
+    new File(cacheDir, "old") should not be a 'directory
+    new File(cacheDir, "new") should be a 'directory
+  }
+
+  def testJUnitXmlAggregator {
+    val xmlDir = new File(baseDir, "junitxml")
+    xmlDir.mkdirs()
+    val aggregate = new File(baseDir, "all.xml")
+    val aggregator = new JUnitXmlAggregator(aggregate, java.util.Arrays.asList(xmlDir), new SystemStreamLog)
+    java.nio.file.Files.write(new File(xmlDir, "TEST-a.xml").toPath, "<?xml version=\"1.0\"?><testsuite name=\"a\"/>".getBytes)
+    aggregator.collect()
+    java.nio.file.Files.write(new File(xmlDir, "TEST-b.xml").toPath, "<testsuite name=\"b\"><testcase".getBytes)
+    aggregator.collect()
+    java.nio.file.Files.write(new File(xmlDir, "TEST-b.xml").toPath, "<testsuite name=\"b\"><testcase name=\"t\"/></testsuite>".getBytes)
+    java.nio.file.Files.write(new File(xmlDir, "TEST-c.xml").toPath, "<testsuite name=\"c\"><testcase".getBytes)
+    aggregator.close()
+
+    val merged = new String(java.nio.file.Files.readAllBytes(aggregate.toPath), "UTF-8")
+    merged should include("<testsuites><testsuite name=\"a\"></testsuite><testsuite name=\"b\"><testcase name=\"t\"></testcase></testsuite></testsuites>")
+  }
+
+  def testReportSummary {
+    val reports = new File(baseDir, "summary")
+    reports.mkdirs()
+    java.nio.file.Files.write(new File(reports, "TEST-a.xml").toPath, "<testsuite name=\"a\" tests=\"3\" failures=\"1\" time=\"0.5\"/>".getBytes)
+    java.nio.file.Files.write(new File(reports, "TEST-b.xml").toPath, "<testsuite name=\"b\" tests=\"2\" errors=\"1\" time=\"2.0\"/>".getBytes)
+    java.nio.file.Files.write(new File(reports, "all.xml").toPath, "<testsuites><testsuite name=\"a\" tests=\"3\"/></testsuites>".getBytes)
+
+    val summary = new ReportSummary(1, new File(reports, "all.xml"))
+    val names = new ArrayList[String]
+    summary.read(reports, new ReportSummary.Listener { def suite(s: ReportSummary.SuiteResult) { names.add(s.name) } })
+
+    names should be(jlist("a", "b"))
+    (summary.suites, summary.tests, summary.failures, summary.errors) should be((2, 5, 1, 1))
+    summary.slowest.get(0).name should be("b")
+    summary.slowest should have size (1)
+  }
+
+  def testEventChannelReporterName {
+    EventChannel.REPORTER should be(classOf[EventChannelReporter].getName)
+  }
+
+  def testSuiteDetector {
+    baseDir.mkdirs()
+    val in = new File(baseDir, "classes.txt")
+    val out = new File(baseDir, "suites.txt")
+    ArgumentFileRunner.write(in, jlist(classOf[PluginTest].getName, classOf[PluginMatchers].getName, "java.lang.String", "a.Missing"))
+    SuiteDetector.main(Array(in.getAbsolutePath, out.getAbsolutePath))
+    ArgumentFileRunner.read(out) should be(jlist(classOf[PluginTest].getName))
+  }
+
+  def testRerunArguments {
+    val config = configure(x => {
+      x.suites = comma("a", "b c")
+      x.tagsToInclude = "x"
+      x.junitxml = "xml"
+      x.filereports = "F out.txt"
+    })
+    AbstractScalaTestMojo.withoutSuiteSelection(config) should be(jlist("-R", outputDirectory + " " + testOutputDirectory, "-n", "x", "-o"))
+  }
+
+  // A mojo forking a JVM per suite that records the suites instead, failing the given ones
+  def recordingMojo(testClasses: File, forked: java.util.List[String], failing: String*) = {
+    val mojo = new TestMojo {
+      override def isTestSuite(collector: TestClassesCollector, classPathEnv: String, testSuite: String) = true
+      override def forkSuite(args: Array[String],
+                             classPathEnv: String,
+                             argumentFile: File,
+                             testSuite: String,
+                             output: java.util.List[String],
+                             budget: java.util.concurrent.Semaphore) = {
+        forked.add(testSuite)
+        if (this.junitxml != null) {
+          val xml = new File(this.reportsDirectory, this.junitxml)
+          xml.mkdirs()
+          java.nio.file.Files.write(new File(xml, "TEST-" + testSuite + ".xml").toPath, ("<testsuite name=\"" + testSuite + "\"/>").getBytes)
+        }
+        !failing.contains(testSuite)
+      }
+      override def runForkingOnce(args: Array[String]) = {
+        forked.add(args.mkString(" "))
+        true
+      }
+    }
+    forkingEachSuite(mojo, testClasses)
+  }
+
+  def forkingEachSuite(mojo: TestMojo, testClasses: File) = {
+    mojo.project = new MavenProject
+    mojo.project.setFile(new File(baseDir, "pom.xml"))
+    mojo.project.getBuild.setDirectory(baseDir.getAbsolutePath)
+    mojo.project.getBuild.setTestOutputDirectory(testClasses.getAbsolutePath)
+    mojo.project.getBuild.setOutputDirectory(outputDirectory)
+    mojo.testOutputDirectory = testClasses
+    mojo.outputDirectory = new File(outputDirectory)
+    mojo.forkMode = "suite-sequential"
+    mojo
+  }
+
+  // A mojo whose forks run a shell script instead of a JVM, within a fork budget of its own build
+  def scriptMojo(testClasses: File, script: String, budget: Int) = {
+    val mojo = forkingEachSuite(new TestMojo {
+      override def isTestSuite(collector: TestClassesCollector, classPathEnv: String, testSuite: String) = true
+      override def forkCommandline(classPathEnv: String, defaultArgLine: String) = {
+        val cli = new org.codehaus.plexus.util.cli.Commandline
+        cli.setExecutable("sh")
+        cli.createArg().setValue("-c")
+        cli.createArg().setValue(script)
+        cli
+      }
+    }, testClasses)
+    mojo.session = buildSession(new org.apache.maven.execution.DefaultMavenExecutionRequest)
+    mojo.forkBudget = budget
+    mojo
+  }
+
+  def buildSession(request: org.apache.maven.execution.MavenExecutionRequest) =
+    new org.apache.maven.execution.MavenSession(null, null: org.eclipse.aether.RepositorySystemSession, request, new org.apache.maven.execution.DefaultMavenExecutionResult)
+
+  def suiteClasses(dir: String, names: String*) = {
+    val testClasses = new File(baseDir, dir)
+    new File(testClasses, "a").mkdirs()
+    for (name <- names)
+      new File(testClasses, "a/" + name + ".class").createNewFile()
+    testClasses
+  }
+
+  def testForkBudgetIsSharedByBuild {
+    val request = new org.apache.maven.execution.DefaultMavenExecutionRequest
+    val testClasses = suiteClasses("budget-classes", "ASuite")
+    val module1 = scriptMojo(testClasses, "exit 0", 2)
+    val module2 = scriptMojo(testClasses, "exit 0", 3)
+    module1.session = buildSession(request)
+    module2.session = buildSession(request)
+    val otherBuild = scriptMojo(testClasses, "exit 0", 2)
+
+    module1.forkBudget() should be theSameInstanceAs (module2.forkBudget())
+    module2.forkBudget().availablePermits should be(2)
+    otherBuild.forkBudget() should not be theSameInstanceAs (module1.forkBudget())
+  }
+
+  def testForkBudgetReleasedWhenForksFail {
+    val mojo = scriptMojo(suiteClasses("budget-failing-classes", "ASuite", "BSuite"), "exit 1", 1)
+    mojo.rerunFailingTestsCount = 1
+
+    // a leaked permit would block the second fork and the re-run for ever
+    mojo.runScalaTest(Array("-o")) should be(false)
+    mojo.forkBudget().availablePermits should be(1)
+  }
+
+  def testForkBudgetReleasedWhenForksTimeOut {
+    val mojo = scriptMojo(suiteClasses("budget-timeout-classes", "ASuite"), "sleep 30", 1)
+    mojo.forkedProcessTimeoutInSeconds = 1
+
+    intercept[org.apache.maven.plugin.MojoFailureException] { mojo.runScalaTest(Array("-o")) }
+    mojo.forkBudget().availablePermits should be(1)
+  }
+
+  def testRerunRunsAllSuitesFirst {
+    val testClasses = new File(baseDir, "rerun-classes")
+    new File(testClasses, "a").mkdirs()
+    for (name <- Seq("ASuite", "BSuite", "CSuite"))
+      new File(testClasses, "a/" + name + ".class").createNewFile()
+    val forked = new ArrayList[String]
+    val mojo = recordingMojo(testClasses, forked, "a.ASuite")
+    mojo.rerunFailingTestsCount = 1
+
+    mojo.runScalaTest(Array("-o")) should be(true)
+    forked should be(jlist("a.ASuite", "a.BSuite", "a.CSuite", "-o -s a.ASuite"))
+  }
+
+  def testRerunSuitesFailingWithoutEvents {
+    val testClasses = new File(baseDir, "rerun-silent-classes")
+    new File(testClasses, "a").mkdirs()
+    for (name <- Seq("ASuite", "BSuite", "CSuite"))
+      new File(testClasses, "a/" + name + ".class").createNewFile()
+    val forked = new ArrayList[String]
+    // the forks fail without sending any events, as if their JVM crashed
+    val mojo = recordingMojo(testClasses, forked, "a.ASuite", "a.CSuite")
+    mojo.rerunFailingTestsCount = 2
+
+    mojo.runScalaTest(Array("-o")) should be(true)
+    forked should be(jlist("a.ASuite", "a.BSuite", "a.CSuite", "-o -s a.ASuite -s a.CSuite"))
+  }
+
+  def testAggregateIncludesCachedSuites {
+    val testClasses = new File(baseDir, "cached-classes")
+    val classFile = new File(testClasses, "org/scalatest/tools/maven/IgnoredSuite.class")
+    classFile.getParentFile.mkdirs()
+    val in = classOf[IgnoredSuite].getResourceAsStream("IgnoredSuite.class")
+    try java.nio.file.Files.copy(in, classFile.toPath, java.nio.file.StandardCopyOption.REPLACE_EXISTING) finally in.close()
+    val reports = new File(baseDir, "cached-reports")
+    val cache = new File(baseDir, "cached-results")
+    def run() = {
+      val forked = new ArrayList[String]
+      val mojo = recordingMojo(testClasses, forked)
+      mojo.reportsDirectory = reports
+      mojo.junitxml = "xml"
+      mojo.junitxmlAggregate = "all.xml"
+      mojo.useResultCache = true
+      mojo.resultCacheDirectory = cache
+      mojo.execute()
+      forked
+    }
+    def age(file: File) {
+      Option(file.listFiles).foreach(_.foreach(age))
+      file.setLastModified(System.currentTimeMillis - 3600 * 1000)
+    }
+
+    run() should be(jlist("org.scalatest.tools.maven.IgnoredSuite"))
+    age(cache)
+    run() should be(jlist())
+    val merged = new String(java.nio.file.Files.readAllBytes(new File(reports, "all.xml").toPath), "UTF-8")
+    merged should include("<testsuite name=\"org.scalatest.tools.maven.IgnoredSuite\"></testsuite>")
+  }
+
+  // Logs whether each fork ran its suite directly or ahead of time, in which case it waits for the command to run
+  def standbyScript(log: File) =
+    "for a; do suite=$a; done\n" +
+    "if [ \"$0\" = " + classOf[StandbyRunner].getName + " ]; then\n" +
+    "  read command; echo \"standby $suite $command\" >> '" + log + "'; [ \"$command\" = run ] || exit 0\n" +
+    "else\n" +
+    "  echo \"fork $suite\" >> '" + log + "'\n" +
+    "fi\n" +
+    "case $suite in *Failing*) exit 1;; *Slow*) sleep 30;; esac\n"
+
+  def runStandby(dir: String, names: Seq[String], configure: TestMojo => Unit = _ => ()) = {
+    val log = new File(baseDir, dir + ".log")
+    log.delete()
+    val mojo = scriptMojo(suiteClasses(dir, names: _*), standbyScript(log), 3)
+    mojo.standbyFork = true
+    configure(mojo)
+    val passed =
+      try Some(mojo.runScalaTest(Array("-o")))
+      catch { case e: org.apache.maven.plugin.MojoFailureException => None }
+    import scala.collection.JavaConverters._
+    (passed, java.nio.file.Files.readAllLines(log.toPath).asScala.sorted, mojo.forkBudget().availablePermits)
+  }
+
+  def testStandbyForkRunsNextSuite {
+    // no JVM is started ahead of time for the suite after the last one
+    runStandby("standby-classes", Seq("ASuite", "BSuite", "CSuite")) should be(
+      (Some(true), Seq("fork a.ASuite", "standby a.BSuite run", "standby a.CSuite run"), 3))
+  }
+
+  def testStandbyForkCancelledWhenSuiteFails {
+    runStandby("standby-failing-classes", Seq("ASuite", "BFailingSuite", "CSuite", "DSuite")) should be(
+      (Some(false), Seq("fork a.ASuite", "standby a.BFailingSuite run", "standby a.CSuite exit"), 3))
+  }
+
+  def testStandbyForkCancelledWhenRunAborts {
+    runStandby("standby-timeout-classes", Seq("ASuite", "BSlowSuite", "CSuite"), _.forkedProcessTimeoutInSeconds = 2) should be(
+      (None, Seq("fork a.ASuite", "standby a.BSlowSuite run", "standby a.CSuite exit"), 3))
+  }
+
+  def testArgumentFile {
+    baseDir.mkdirs()
+    val file = new File(baseDir, "args.txt")
+    val args = jlist("-s", "a.FooSuite", "-z", "multi\nline \\ test", "")
+    ArgumentFileRunner.write(file, args)
+    ArgumentFileRunner.read(file) should be(args)
+  }
+
+  def testSuiteStatistics {
+    val file = new File(baseDir, "statistics/durations")
+    val statistics = SuiteStatistics.load(file, new SystemStreamLog)
+    statistics.duration("a.FooSuite") should be(null)
+    statistics.record("a.FooSuite", 1500)
+    statistics.save()
+
+    SuiteStatistics.load(file, new SystemStreamLog).duration("a.FooSuite") should be(1500L)
+  }
+
+  def testStartupProfileGC {
+    val profile = "-XX:TieredStopAtLevel=1 -XX:+UseSerialGC -Xshare:auto"
+    AbstractScalaTestMojo.withoutConflictingGC(profile, "-Xmx1g") should be(profile)
+    AbstractScalaTestMojo.withoutConflictingGC(profile, "-Xmx1g -XX:+UseG1GC") should be("-XX:TieredStopAtLevel=1 -Xshare:auto")
+  }
+
+  def testTestClasses {
+    val testClasses = new File(baseDir, "test-classes")
+    val dir = new File(testClasses, "a/subclass")
+    dir.mkdirs()
+    for (name <- Seq("FooSuite.class", "FooSuite$1.class", "application.conf"))
+      new File(dir, name).createNewFile()
+    new TestClassesCollector(testClasses.getAbsolutePath + "/").testClasses() should be(jlist("a.subclass.FooSuite"))
+  }
+
+  def testSuiteIndex {
+    val testClasses = new File(classOf[PluginTest].getProtectionDomain.getCodeSource.getLocation.toURI)
+    val file = new File(baseDir, "suite-index")
+    val suite = classOf[PluginTest].getName
+    val index = SuiteIndex.update(file, testClasses)
+    index.tags(index.find(suite)) should contain("scala.reflect.ScalaSignature")
+    index.classes(1, 1) should contain(suite)
+
+    // unchanged class files leave the index file as it is
+    file.setLastModified(file.lastModified - 10000)
+    val written = file.lastModified
+    SuiteIndex.update(file, testClasses).size should be(index.size)
+    file.lastModified should be(written)
+  }
+
+  def testExcludedTagSkipsSuite {
+    val testClasses = new File(classOf[PluginTest].getProtectionDomain.getCodeSource.getLocation.toURI)
+    for (useSuiteIndex <- Seq(false, true)) {
+      val forked = new ArrayList[String]
+      val mojo = recordingMojo(testClasses, forked)
+      mojo.tagsToExclude = classOf[Ignore].getName
+      mojo.useSuiteIndex = useSuiteIndex
+      mojo.suiteIndexFile = new File(baseDir, "tagged-suite-index")
+
+      mojo.runScalaTest(Array("-o")) should be(true)
+      forked should contain(classOf[PluginTest].getName)
+      forked should not contain (classOf[IgnoredSuite].getName)
+    }
+  }
+
+  def testRunOrder {
+    val statistics = SuiteStatistics.load(new File(baseDir, "no-statistics"), new SystemStreamLog)
+    statistics.record("a", 10)
+    statistics.record("b", 30)
+    statistics.recordResult("c", false)
+    val suites = jlist("c", "b", "a", "d")
+
+    RunOrder.parse("alphabetical").sort(suites, statistics) should be(jlist("a", "b", "c", "d"))
+    RunOrder.parse("longest-first").sort(suites, statistics) should be(jlist("c", "d", "b", "a"))
+    RunOrder.parse("failed-first").sort(suites, statistics) should be(jlist("c", "a", "b", "d"))
+    RunOrder.parse("random:42").sort(suites, statistics) should be(RunOrder.parse("random:42").sort(suites, statistics))
+    intercept[IllegalArgumentException] { RunOrder.parse("fastest-first") }
+  }
+
+  def testCgroupsCreateFailsWithoutMovingProcesses {
+    val parent = new File(baseDir, "cgroup-parent")
+    parent.mkdirs()
+
+    Cgroups.create(parent, "execution", "false", new SystemStreamLog) should be(null)
+    new File(parent, "execution") should not be a 'directory
+  }
+
+  def testCgroupsGroup {
+    val root = new File(baseDir, "cgroup-root")
+    root.mkdirs()
+    val group = new Cgroups(root, "sh", false, true, new SystemStreamLog).newGroup()
+    val dir = new File(root, "fork-1")
+
+    group.limit(100, " 1G ")
+    dir.list.toSeq should be(Seq("memory.max"))
+    new String(java.nio.file.Files.readAllBytes(new File(dir, "memory.max").toPath), "UTF-8") should be("1G")
+
+    val cli = new org.codehaus.plexus.util.cli.Commandline
+    cli.setExecutable("echo")
+    cli.createArg().setValue("hello world")
+    group.enter(cli)
+    cli.getLiteralExecutable should be("sh")
+    cli.getArguments.toSeq should be(Seq("-c", "echo $$ > \"$0\" && exec \"$@\"", new File(dir, "cgroup.procs").getAbsolutePath, "echo", "hello world"))
+    val process = cli.execute()
+    val output = scala.io.Source.fromInputStream(process.getInputStream).mkString
+    process.waitFor() should be(0)
+    output.trim should be("hello world")
+    new File(dir, "cgroup.procs") should be a 'file
+
+    java.nio.file.Files.write(new File(dir, "memory.peak").toPath, "2097152\n".getBytes)
+    java.nio.file.Files.write(new File(dir, "cpu.stat").toPath, "usage_usec 2000000\nuser_usec 1500000\nsystem_usec 500000\n".getBytes)
+    java.nio.file.Files.write(new File(dir, "memory.events").toPath, "low 0\noom_kill 1\n".getBytes)
+    group.usage() should be("peak memory 2 MB, " + "CPU time %.1f s user, %.1f s system".format(1.5, 0.5) + ", killed for exceeding the memory limit")
+  }
+
+  // A forked watch runner that records the requests, answers suites requests with the given suites and passes runs
+  def scriptedWatchRunner(requests: java.util.List[String], suites: String*) = {
+    val toRunner = new java.io.PipedInputStream
+    val fromMojo = new java.io.PipedOutputStream(toRunner)
+    val fromRunner = new java.io.PipedInputStream
+    val out = new java.io.PrintStream(new java.io.PipedOutputStream(fromRunner), true, "UTF-8")
+    val responder = new Thread(new Runnable {
+      def run() {
+        val in = new java.io.BufferedReader(new java.io.InputStreamReader(toRunner, "UTF-8"))
+        var kind = in.readLine()
+        while (kind != null) {
+          val args = Seq.fill(in.readLine().toInt)(WatchRunner.unescape(in.readLine()))
+          requests.add((kind +: args).mkString(" "))
+          if (kind == WatchRunner.SUITES)
+            out.println(WatchRunner.DONE + args.tail.filter(suites.contains(_)).mkString(" "))
+          else
+            out.println("output without a line separator" + WatchRunner.DONE + "true")
+          kind = in.readLine()
+        }
+      }
+    })
+    responder.setDaemon(true)
+    responder.start()
+    new Process {
+      def getOutputStream() = fromMojo
+      def getInputStream() = fromRunner
+      def getErrorStream() = new java.io.ByteArrayInputStream(new Array[Byte](0))
+      def waitFor() = 0
+      def exitValue() = 0
+      override def isAlive() = true
+      def destroy() { fromMojo.close() }
+    }
+  }
+
+  def watchMojo(testClasses: File, output: java.util.List[String]) = {
+    val mojo = new WatchMojo {
+      override def forkOutput(line: String) { output.add(line) }
+    }
+    mojo.testOutputDirectory = testClasses
+    mojo.outputDirectory = new File(outputDirectory)
+    mojo
+  }
+
+  def copyTestClass(cls: Class[_], testClasses: File) {
+    val file = new File(testClasses, cls.getName.replace('.', '/') + ".class")
+    file.getParentFile.mkdirs()
+    val in = cls.getResourceAsStream(cls.getSimpleName + ".class")
+    try java.nio.file.Files.copy(in, file.toPath, java.nio.file.StandardCopyOption.REPLACE_EXISTING) finally in.close()
+  }
+
+  def testWatchRunnerHandshake {
+    val testClasses = new File(baseDir, "watch-handshake-classes")
+    copyTestClass(classOf[IgnoredSuite], testClasses)
+    copyTestClass(classOf[PluginMatchers], testClasses)
+    val empty = new File(baseDir, "watch-handshake-empty")
+    empty.mkdirs()
+    val javaExecutable = new File(System.getProperty("java.home"), "bin/java").getPath
+    val process = new ProcessBuilder(javaExecutable, "-cp", System.getProperty("java.class.path"), classOf[WatchRunner].getName).start()
+    val output = new ArrayList[String]
+    val mojo: WatchMojo = watchMojo(testClasses, output)
+    val runner = new mojo.WatchedRunner(process)
+    try {
+      runner.suites(testClasses.getAbsolutePath, jlist("org.scalatest.tools.maven.IgnoredSuite", "org.scalatest.tools.maven.PluginMatchers")) should be(jlist("org.scalatest.tools.maven.IgnoredSuite"))
+      runner.run(jlist("-R", empty.getAbsolutePath, "-o")) should be(true)
+    } finally {
+      runner.destroy()
+    }
+  }
+
+  def testWatchRerunsAffectedSuites {
+    val testClasses = new File(baseDir, "watch-classes")
+    for (cls <- Seq(classOf[PluginTest], classOf[PluginMatchers], classOf[IgnoredSuite]))
+      copyTestClass(cls, testClasses)
+    val requests = new ArrayList[String]
+    val output = new ArrayList[String]
+    val mojo: WatchMojo = watchMojo(testClasses, output)
+    val runner = new mojo.WatchedRunner(scriptedWatchRunner(requests, "org.scalatest.tools.maven.PluginTest", "org.scalatest.tools.maven.IgnoredSuite"))
+    val dependents = new ReverseDependencies(new ClassDependencies(java.util.Arrays.asList(testClasses, mojo.outputDirectory)))
+    for (cls <- Seq("PluginTest", "PluginMatchers", "IgnoredSuite"))
+      dependents.update("org.scalatest.tools.maven." + cls)
+    new File(testClasses, "org/scalatest/tools/maven/PluginMatchers.class").setLastModified(System.currentTimeMillis)
+
+    val changes = new WatchMojo.Changes(new java.util.TreeSet[String](java.util.Arrays.asList("org.scalatest.tools.maven.PluginMatchers")), false)
+    mojo.rerun(runner, jlist("-o"), dependents, changes) should be(true)
+    requests.get(0) should endWith(" org.scalatest.tools.maven.PluginMatchers org.scalatest.tools.maven.PluginTest")
+    requests.get(1) should be("run -o -s org.scalatest.tools.maven.PluginTest")
+    output should be(jlist("output without a line separator"))
+  }
+
+  def testWatchRerunsAllSuitesOnOverflow {
+    val testClasses = new File(baseDir, "watch-overflow-classes")
+    testClasses.mkdirs()
+    val requests = new ArrayList[String]
+    val mojo: WatchMojo = watchMojo(testClasses, new ArrayList[String])
+    val runner = new mojo.WatchedRunner(scriptedWatchRunner(requests))
+    val dependents = new ReverseDependencies(new ClassDependencies(java.util.Arrays.asList(testClasses)))
+
+    mojo.rerun(runner, jlist("-o", "-s", "a.FooSuite"), dependents, new WatchMojo.Changes(new java.util.TreeSet[String], true)) should be(true)
+    requests should be(jlist("run -o -s a.FooSuite"))
+  }
 }
+
+// Excluded by testExcludedTagSkipsSuite through its tag annotation
+@Ignore
+final class IgnoredSuite extends AnyFunSuite